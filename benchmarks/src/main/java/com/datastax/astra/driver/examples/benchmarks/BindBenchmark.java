@@ -0,0 +1,35 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.PayloadGenerator;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Binding the demo statements, directly on the prepared statement and through the registry's non-blocking path.
+ */
+@State(Scope.Thread)
+public class BindBenchmark {
+    private final UUID id = PayloadGenerator.randomId();
+    private final Instant now = Instant.now();
+
+    @Benchmark
+    public BoundStatement bindInsert(StandInSession s) {
+        return s.insert.bind(id, now, "abcdefghij", 42);
+    }
+
+    @Benchmark
+    public BoundStatement bindSelectIn(StandInSession s) {
+        return s.select.bind(s.ids);
+    }
+
+    @Benchmark
+    public BoundStatement registryBindInsert(StandInSession s) {
+        return s.statements.bind(s.session, Operations.INSERT, id, now, "abcdefghij", 42).toCompletableFuture().join();
+    }
+}
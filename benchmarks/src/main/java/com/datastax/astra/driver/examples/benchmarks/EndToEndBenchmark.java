@@ -0,0 +1,136 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.astra.driver.examples.common.AsyncWorkloadRunner;
+import com.datastax.astra.driver.examples.common.BlockingWorkloadRunner;
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.PayloadGenerator;
+import com.datastax.astra.driver.examples.common.ReactiveWorkloadRunner;
+import com.datastax.astra.driver.examples.common.RecentIds;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Demo iterations (insert a row, then read back the last ten) per second against the stand-in cluster, i.e. the
+ * whole client path including the driver's encoding, networking and decoding but no real database.
+ * <p>
+ * {@code api} picks how the requests are issued: blocking {@code execute} calls on {@code concurrency} platform
+ * threads, the same on as many virtual threads ({@code -p api=virtual}, Java 21 only), CompletionStage chains with
+ * at most {@code concurrency} in flight, or a Reactive Streams pipeline on {@code executeReactive} with a
+ * {@code flatMap} of that concurrency. Add {@code -prof gc} to compare their allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EndToEndBenchmark {
+    private static final int ITERATIONS = 1000;
+
+    @Param({"1", "64"})
+    public int concurrency;
+
+    @Param({"sync", "async", "reactive"})
+    public String api;
+
+    private final PayloadGenerator payloads = new PayloadGenerator(1024, 10);
+    private final RecentIds ids = new RecentIds(10);
+
+    // built once per trial, so starting the worker threads is not measured
+    private BlockingWorkloadRunner blockingRunner;
+    private ExecutorService threads;
+    private AsyncWorkloadRunner asyncRunner;
+    private ReactiveWorkloadRunner reactiveRunner;
+
+    @Setup(Level.Trial)
+    public void createRunner() {
+        switch (api) {
+            case "sync":
+            case "virtual":
+                blockingRunner = new BlockingWorkloadRunner(concurrency, api.equals("virtual"));
+                threads = blockingRunner.newThreads();
+                break;
+            case "async":
+                asyncRunner = new AsyncWorkloadRunner(concurrency);
+                break;
+            case "reactive":
+                reactiveRunner = new ReactiveWorkloadRunner(concurrency);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown api " + api);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopThreads() {
+        if (threads != null) {
+            threads.shutdown();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public void insertThenRead(StandInSession s) {
+        if (blockingRunner != null) {
+            blocking(s);
+        } else if (asyncRunner != null) {
+            async(s);
+        } else {
+            reactive(s);
+        }
+    }
+
+    private void blocking(StandInSession s) {
+        blockingRunner.run(ITERATIONS, (i, intendedStart) -> {
+            UUID id = PayloadGenerator.randomId();
+            s.session.execute(bind(s, Operations.INSERT, id, Instant.now(), payloads.string(i), payloads.number(i)));
+            ids.add(id);
+            s.session.execute(bind(s, Operations.SELECT_BY_IDS, ids.snapshot()));
+        }, threads);
+    }
+
+    private static BoundStatement bind(StandInSession s, String name, Object... values) {
+        return CompletableFutures.getUninterruptibly(s.statements.bind(s.session, name, values));
+    }
+
+    private void async(StandInSession s) {
+        asyncRunner.run(ITERATIONS, (i, intendedStart) -> {
+            UUID id = PayloadGenerator.randomId();
+            return s.statements.bind(s.session, Operations.INSERT, id, Instant.now(), payloads.string(i), payloads.number(i))
+                    .thenCompose(s.session::executeAsync)
+                    .thenCompose(written -> {
+                        ids.add(id);
+                        return s.statements.bind(s.session, Operations.SELECT_BY_IDS, ids.snapshot());
+                    })
+                    .thenCompose(s.session::executeAsync);
+        });
+    }
+
+    private void reactive(StandInSession s) {
+        reactiveRunner.run(ITERATIONS, (i, intendedStart) -> {
+            UUID id = PayloadGenerator.randomId();
+            return Mono.fromCompletionStage(s.statements.bind(s.session, Operations.INSERT, id, Instant.now(), payloads.string(i), payloads.number(i)))
+                    .flatMapMany(write -> s.session.executeReactive(write))
+                    .thenMany(Flux.defer(() -> {
+                        ids.add(id);
+                        return Mono.fromCompletionStage(s.statements.bind(s.session, Operations.SELECT_BY_IDS, ids.snapshot()))
+                                .flatMapMany(read -> s.session.executeReactive(read));
+                    }));
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.astra.driver.examples.common.MultiPartitionReader;
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.PayloadGenerator;
+import com.datastax.astra.driver.examples.common.RetryBudget;
+import com.datastax.astra.driver.examples.common.RetryExecutor;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of reading back {@code window} partitions with one {@code IN} query versus concurrent single-partition
+ * queries, against a stand-in whose nodes each answer with an exponentially distributed delay. The {@code IN} query
+ * waits on the slowest of its partitions at its coordinator, the fan-out on the slowest of its own requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MultiPartitionReadBenchmark {
+
+    @Param({"in", "fanout"})
+    public String mode;
+
+    @Param({"1", "10", "50"})
+    public int window;
+
+    private RetryExecutor retry;
+    private MultiPartitionReader reader;
+    private final List<UUID> ids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void setUp(StandInSession s) {
+        PayloadGenerator payloads = new PayloadGenerator(16, 10);
+        ids.addAll(s.ids.subList(0, Math.min(window, s.ids.size())));
+        for (int i = ids.size(); i < window; i++) {
+            UUID id = PayloadGenerator.randomId();
+            s.session.execute(s.insert.bind(id, Instant.now(), payloads.string(i), payloads.number(i)));
+            ids.add(id);
+        }
+        s.cluster.withBehavior("latency=exp1");
+        retry = new RetryExecutor(RetryBudget.unlimited(), null);
+        reader = new MultiPartitionReader(s.session, retry, null, MultiPartitionReader.Mode.valueOf(mode.toUpperCase(Locale.ROOT)));
+    }
+
+    @Benchmark
+    public void read(StandInSession s, Blackhole bh) {
+        CompletableFutures.getUninterruptibly(reader.read(s.statements, ids, bh::consume, System.nanoTime()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        retry.close();
+    }
+}
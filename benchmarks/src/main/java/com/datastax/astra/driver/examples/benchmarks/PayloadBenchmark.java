@@ -0,0 +1,37 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.astra.driver.examples.common.PayloadGenerator;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Generating the values of one demo row: the original per-iteration {@code Entry} (SecureRandom UUID and a fresh
+ * random string) against the pre-generated payload ring.
+ */
+@State(Scope.Thread)
+public class PayloadBenchmark {
+    private final Random random = new Random();
+    private final PayloadGenerator payloads = new PayloadGenerator(1024, 10);
+    private long iteration;
+
+    @Benchmark
+    public void randomEntry(Blackhole bh) {
+        bh.consume(UUID.randomUUID());
+        bh.consume(RandomStringUtils.randomAlphabetic(10));
+        bh.consume(Math.abs(random.nextInt() % 9999));
+    }
+
+    @Benchmark
+    public void pregeneratedEntry(Blackhole bh) {
+        long i = iteration++;
+        bh.consume(PayloadGenerator.randomId());
+        bh.consume(payloads.string(i));
+        bh.consume(payloads.number(i));
+    }
+}
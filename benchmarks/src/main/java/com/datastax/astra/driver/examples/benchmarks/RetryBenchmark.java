@@ -0,0 +1,59 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.astra.driver.examples.common.OperationType;
+import com.datastax.astra.driver.examples.common.RetryBudget;
+import com.datastax.astra.driver.examples.common.RetryExecutor;
+import com.datastax.astra.driver.examples.common.WorkloadMetrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Overhead the retry wrapper adds to a request that succeeds first time, with and without recording metrics.
+ */
+@State(Scope.Benchmark)
+public class RetryBenchmark {
+    private static final CompletableFuture<String> DONE = CompletableFuture.completedFuture("done");
+    private static final Supplier<CompletionStage<String>> REQUEST = () -> DONE;
+
+    private WorkloadMetrics metrics;
+    private RetryExecutor bare;
+    private RetryExecutor budgeted;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // no interval reports, the summary is logged once on tear down
+        metrics = new WorkloadMetrics(0, null, null);
+        bare = new RetryExecutor(RetryBudget.unlimited(), null);
+        budgeted = new RetryExecutor(new RetryBudget(0.1, 100), metrics);
+    }
+
+    @Benchmark
+    public String direct() {
+        return REQUEST.get().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public String retryExecutor() {
+        return bare.executeAsync(REQUEST, OperationType.SELECT, System.nanoTime(), "benchmark").toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public String retryExecutorWithBudgetAndMetrics() {
+        return budgeted.executeAsync(REQUEST, OperationType.SELECT, System.nanoTime(), "benchmark").toCompletableFuture().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        bare.close();
+        budgeted.close();
+        metrics.close();
+    }
+}
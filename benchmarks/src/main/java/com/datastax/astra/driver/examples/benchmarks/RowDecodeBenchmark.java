@@ -0,0 +1,42 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+
+/**
+ * Decoding the rows returned by the demo read, looking columns up by name against by index.
+ */
+@State(Scope.Thread)
+public class RowDecodeBenchmark {
+    private List<Row> rows;
+
+    @Setup(Level.Trial)
+    public void read(StandInSession s) {
+        rows = s.readRows();
+    }
+
+    @Benchmark
+    public void byName(Blackhole bh) {
+        for (Row row : rows) {
+            bh.consume(row.getInstant("created_at"));
+            bh.consume(row.getString("string"));
+            bh.consume(row.getInt("number"));
+        }
+    }
+
+    @Benchmark
+    public void byIndex(Blackhole bh) {
+        for (Row row : rows) {
+            bh.consume(row.getInstant(0));
+            bh.consume(row.getString(1));
+            bh.consume(row.getInt(2));
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read latency distribution when one node of the stand-in has a long tail, to see how much of it speculative
+ * executions (astra.conf: after each node's p95, for at most 10% of requests) hide. Pass other node behaviors with
+ * {@code -p behavior=...}, see {@code StandInCluster#withBehavior}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SlowNodeBenchmark {
+
+    @Param({"latency=0", "node1:latency=exp5,slow=200@0.05"})
+    public String behavior;
+
+    @Setup(Level.Trial)
+    public void slowDown(StandInSession s) {
+        // after the session's setup, so connecting and writing the rows is not slowed down
+        s.cluster.withBehavior(behavior);
+    }
+
+    @Benchmark
+    public List<Row> read(StandInSession s) {
+        return s.readRows();
+    }
+}
@@ -0,0 +1,75 @@
+package com.datastax.astra.driver.examples.benchmarks;
+
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.PayloadGenerator;
+import com.datastax.astra.driver.examples.common.PreparedStatementRegistry;
+import com.datastax.astra.driver.examples.standin.StandInCluster;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A session connected to an in-process three node stand-in cluster, with the demo table created and a few rows
+ * written so reads have something to return.
+ */
+@State(Scope.Benchmark)
+public class StandInSession {
+    static final String KEYSPACE = "bench";
+    static final int ROWS = 10;
+
+    StandInCluster cluster;
+    CqlSession session;
+    PreparedStatementRegistry statements;
+    PreparedStatement insert;
+    PreparedStatement select;
+    final List<UUID> ids = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void connect() {
+        cluster = new StandInCluster("datacenter1", 0, 0, 0).start();
+        session = CqlSession.builder()
+                .addContactPoints(cluster.getContactPoints())
+                .withLocalDatacenter(cluster.getDatacenter())
+                .withKeyspace(KEYSPACE)
+                .withConfigLoader(DriverConfigLoader.fromClasspath("astra.conf"))
+                .build();
+        session.execute(Operations.buildCreateTableCql(Operations.DEMO_TABLE));
+        statements = Operations.buildDemoStatements(Operations.DEMO_TABLE);
+        CompletableFutures.getUninterruptibly(statements.prepareAll(session));
+        insert = CompletableFutures.getUninterruptibly(statements.prepare(session, Operations.INSERT));
+        select = CompletableFutures.getUninterruptibly(statements.prepare(session, Operations.SELECT_BY_IDS));
+
+        PayloadGenerator payloads = new PayloadGenerator(16, 10);
+        for (int i = 0; i < ROWS; i++) {
+            UUID id = PayloadGenerator.randomId();
+            session.execute(insert.bind(id, Instant.now(), payloads.string(i), payloads.number(i)));
+            ids.add(id);
+        }
+    }
+
+    List<Row> readRows() {
+        return session.execute(select.bind(ids)).all();
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        if (session != null) {
+            session.close();
+        }
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+}
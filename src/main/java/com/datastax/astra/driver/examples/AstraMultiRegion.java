@@ -1,12 +1,20 @@
 package com.datastax.astra.driver.examples;
 
 import com.datastax.astra.driver.examples.common.ConnectionOptions;
+import com.datastax.astra.driver.examples.common.FlightRecorder;
 import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.RegionHealth;
+import com.datastax.astra.driver.examples.common.RetryPolicy;
+import com.datastax.astra.driver.examples.common.SessionStartup;
+import com.datastax.astra.driver.examples.common.SlidingWindowHistogram;
 import com.datastax.oss.driver.api.core.CqlIdentifier;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
-import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
 import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.cql.Statement;
 import com.datastax.oss.driver.api.core.metadata.Metadata;
 import com.datastax.oss.driver.api.core.metrics.Metrics;
 import com.datastax.oss.driver.api.core.session.Request;
@@ -18,9 +26,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class AstraMultiRegion {
 
@@ -33,72 +57,341 @@ public class AstraMultiRegion {
 
     // Populate AstraDB using the provided connection options
     public static void run(ConnectionOptions options) {
+        FlightRecorder.start(options.getProfile());
         final String keyspace = options.getKeyspace();
 
-        DriverConfigLoader staticConfig = DriverConfigLoader.fromClasspath("astra.conf");
-
         CqlSessionBuilder primaryBuilder = CqlSession.builder()
-                .withCloudSecureConnectBundle(Paths.get(options.getAstraSecureConnectBundle()))
                 .withAuthCredentials("token", options.getAstraToken())
-                .withKeyspace(keyspace)
-                .withConfigLoader(staticConfig);
+                .withKeyspace(keyspace);
         CqlSessionBuilder fallbackBuilder = CqlSession.builder()
-                .withCloudSecureConnectBundle(Paths.get(options.getFallbackAstraSecureConnectBundle()))
                 .withAuthCredentials("token", options.getAstraToken())
-                .withKeyspace(keyspace)
-                .withConfigLoader(staticConfig);
+                .withKeyspace(keyspace);
+
+        // both regions start concurrently and are ready to serve the demo statements before any traffic is sent
+        SessionStartup primary = new SessionStartup("primary", primaryBuilder, Paths.get(options.getAstraSecureConnectBundle()), "astra.conf")
+                .withPreparedStatements(Operations.DEMO_STATEMENTS)
+                .withPoolWarmup(options.isWarmPool())
+                .withMetricsPort(options.getMetricsPort());
+        SessionStartup fallback = new SessionStartup("fallback", fallbackBuilder, Paths.get(options.getFallbackAstraSecureConnectBundle()), "astra.conf")
+                .withPreparedStatements(Operations.DEMO_STATEMENTS)
+                .withPoolWarmup(options.isWarmPool())
+                .withMetricsPort(options.getMetricsPort());
 
         LOG.info("Creating connection using '{}', fallback: '{}", options.getAstraSecureConnectBundle(), options.getFallbackAstraSecureConnectBundle());
         LOG.debug("Using keyspace '{}'", keyspace);
-        try (PrimarySessionWithFallback cqlSession = new PrimarySessionWithFallback(primaryBuilder, fallbackBuilder)) {
+        try (PrimarySessionWithFallback cqlSession = new PrimarySessionWithFallback(primary, fallback, options.getHedgePercentile())) {
             if (cqlSession.get() == null) {
                 LOG.error("no session connected");
                 throw new RuntimeException("no session connected");
             }
-            // TODO: handle region-fallback after initial connection
-            Operations.runDemo(cqlSession, options.getIterations());
+            Operations.runDemo(cqlSession, options);
         }
     }
 
     /**
      * Class wrapping primary and fallback CqlSession definitions.
-     * If connection cannot be established to primary, seamlessly try fallback.
-     * Note: fallback only occurs at initialization, ideally this would also happen any time primary was closed.
+     * Both sessions are kept connected and their health tracked from every response plus a periodic probe. Requests
+     * go to the primary while it is healthy, switch to the fallback when it degrades and switch back once it has
+     * recovered. The active session is swapped atomically so routing a request never takes a lock.
+     * <p>
+     * Optionally, idempotent SELECTs executed asynchronously are hedged across regions: if the active region has not
+     * answered within the given percentile of its recent latency, the same read is sent to the other region, the first
+     * response wins and the slower request is cancelled.
      */
     public static class PrimarySessionWithFallback implements CqlSession {
 
-        private CqlSession primary;
-        private CqlSession fallback;
+        // lightweight query sent to both regions in the background to keep them warm and measure their health
+        private static final SimpleStatement PROBE = SimpleStatement.newInstance("SELECT release_version FROM system.local").setIdempotent(true);
+        private static final long PROBE_INTERVAL_MILLIS = 1000;
+        // minimum time spent on a region before switching again
+        private static final long MIN_SWITCH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+        // latency percentiles are taken over the last 30 probe intervals, and only trusted once there are enough samples
+        private static final int LATENCY_WINDOW_INTERVALS = 30;
+        private static final long MIN_HEDGE_SAMPLES = 100;
+
+        private final Region primary;
+        private final Region fallback;
+        private final AtomicReference<Region> active = new AtomicReference<>();
+        private volatile long lastSwitchNanos = System.nanoTime() - MIN_SWITCH_INTERVAL_NANOS;
+        private final ScheduledExecutorService monitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "region-monitor");
+            t.setDaemon(true);
+            return t;
+        });
+
+        private final double hedgePercentile;
+        // delay before hedging a read, negative until the active region has enough latency samples
+        private volatile long hedgeDelayNanos = -1;
+        private final LongAdder hedgeEligible = new LongAdder();
+        private final LongAdder hedgesSent = new LongAdder();
+        private final LongAdder hedgeWins = new LongAdder();
+        private final LongAdder hedgeSavedNanos = new LongAdder();
 
         public PrimarySessionWithFallback(CqlSessionBuilder primary, CqlSessionBuilder fallback) {
-            CompletableFutures.getUninterruptibly(primary.buildAsync()
-                    .handle((p, t) -> {
-                        if (p != null) {
-                            this.primary = p;
-                            return CompletableFuture.completedFuture((CqlSession) null);
-                        } else {
-                            LOG.warn("failed to connect to primary, trying fallback", t);
-                            return fallback.buildAsync();
+            this(primary, fallback, 0);
+        }
+
+        public PrimarySessionWithFallback(CqlSessionBuilder primary, CqlSessionBuilder fallback, double hedgePercentile) {
+            this(new Region("primary", primary::buildAsync, null), new Region("fallback", fallback::buildAsync, null), hedgePercentile);
+        }
+
+        /**
+         * @param hedgePercentile hedge idempotent reads to the other region after this percentile of the active
+         *                        region's latency, 0 or less to disable hedging
+         */
+        public PrimarySessionWithFallback(SessionStartup primary, SessionStartup fallback, double hedgePercentile) {
+            this(new Region(primary.getName(), primary::startAsync, primary::prepare), new Region(fallback.getName(), fallback::startAsync, fallback::prepare), hedgePercentile);
+        }
+
+        private PrimarySessionWithFallback(Region primary, Region fallback, double hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+            this.primary = primary;
+            this.fallback = fallback;
+            // connect both regions so the fallback is ready to take traffic the moment it is needed
+            CompletableFutures.getUninterruptibly(CompletableFutures.allDone(Arrays.asList(this.primary.connect(), this.fallback.connect())));
+            this.active.set(this.primary.session != null || this.fallback.session == null ? this.primary : this.fallback);
+            monitor.scheduleWithFixedDelay(this::probe, PROBE_INTERVAL_MILLIS, PROBE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * Session currently receiving traffic, null if neither region could be connected.
+         */
+        public CqlSession get() {
+            return active.get().session;
+        }
+
+        public RegionHealth getPrimaryHealth() {
+            return primary.health;
+        }
+
+        public RegionHealth getFallbackHealth() {
+            return fallback.health;
+        }
+
+        private void probe() {
+            for (Region region : Arrays.asList(primary, fallback)) {
+                if (region.session == null) {
+                    region.connect();
+                } else if (region.probing.compareAndSet(false, true)) {
+                    long start = System.nanoTime();
+                    region.session.executeAsync(PROBE).whenComplete((rs, t) -> {
+                        region.record(start, t);
+                        region.probing.set(false);
+                    });
+                }
+                accountHedgeWins(region);
+                region.latency.rotate();
+            }
+            maybeSwitch();
+            if (hedgePercentile > 0) {
+                SlidingWindowHistogram latency = active.get().latency;
+                hedgeDelayNanos = latency.getTotalCount() >= MIN_HEDGE_SAMPLES ? latency.getValueAtPercentileNanos(hedgePercentile) : -1;
+            }
+        }
+
+        private void maybeSwitch() {
+            if (System.nanoTime() - lastSwitchNanos < MIN_SWITCH_INTERVAL_NANOS) {
+                return;
+            }
+            Region current = active.get();
+            if (current == primary) {
+                if (primary.health.isDegraded() && fallback.session != null && !fallback.health.isDegraded()) {
+                    switchTo(current, fallback);
+                }
+            } else if (primary.session != null && (primary.health.isRecovered() || (fallback.health.isDegraded() && !primary.health.isDegraded()))) {
+                switchTo(current, primary);
+            }
+        }
+
+        private void switchTo(Region from, Region to) {
+            if (active.compareAndSet(from, to)) {
+                lastSwitchNanos = System.nanoTime();
+                LOG.warn("Switching traffic from {} to {}", from.health, to.health);
+                FlightRecorder.failover(from.health.getName(), to.health.getName(), from.health + " -> " + to.health);
+                // make sure statements that could not be prepared at startup are ready before traffic arrives
+                to.prepare();
+            }
+        }
+
+        /**
+         * One region: how to connect to it, its session once connected and its health.
+         */
+        private static class Region {
+            final Supplier<CompletionStage<CqlSession>> connector;
+            // prepares the application's statements on the region's session, null if there are none
+            final Function<CqlSession, CompletionStage<Void>> preparer;
+            final RegionHealth health;
+            final AtomicBoolean connecting = new AtomicBoolean();
+            final AtomicBoolean probing = new AtomicBoolean();
+            // latency of successful requests, used to derive the hedging delay
+            final SlidingWindowHistogram latency = new SlidingWindowHistogram(LATENCY_WINDOW_INTERVALS);
+            // how long the requests that a hedge beat had been waiting, turned into estimated savings off the I/O threads
+            final Queue<Long> outrunNanos = new ConcurrentLinkedQueue<>();
+            volatile CqlSession session;
+
+            Region(String name, Supplier<CompletionStage<CqlSession>> connector, Function<CqlSession, CompletionStage<Void>> preparer) {
+                this.connector = connector;
+                this.preparer = preparer;
+                this.health = new RegionHealth(name);
+            }
+
+            CompletionStage<CqlSession> connect() {
+                if (!connecting.compareAndSet(false, true)) {
+                    return CompletableFuture.completedFuture(session);
+                }
+                FlightRecorder.Span span = FlightRecorder.beginConnect(health.getName());
+                return connector.get().handle((s, t) -> {
+                    span.finish(t);
+                    if (s != null) {
+                        LOG.info("Connected to {} region", health.getName());
+                        session = s;
+                    } else {
+                        LOG.warn("failed to connect to {} region", health.getName(), t);
+                        health.markDown();
+                        connecting.set(false);
+                    }
+                    return s;
+                });
+            }
+
+            void prepare() {
+                CqlSession s = session;
+                if (preparer != null && s != null) {
+                    preparer.apply(s);
+                }
+            }
+
+            void record(long startNanos, Throwable t) {
+                long elapsed = System.nanoTime() - startNanos;
+                // only errors that point at the region itself count against its health, not e.g. invalid queries
+                health.record(elapsed, t != null && RetryPolicy.classify(t).isRetryable());
+                if (t == null) {
+                    latency.recordNanos(elapsed);
+                }
+            }
+        }
+
+        private static boolean isIdempotentRead(Statement<?> statement) {
+            if (!Boolean.TRUE.equals(statement.isIdempotent())) {
+                return false;
+            }
+            String query;
+            if (statement instanceof BoundStatement) {
+                query = ((BoundStatement) statement).getPreparedStatement().getQuery();
+            } else if (statement instanceof SimpleStatement) {
+                query = ((SimpleStatement) statement).getQuery();
+            } else {
+                return false;
+            }
+            query = query.trim();
+            return query.regionMatches(true, 0, "SELECT", 0, 6);
+        }
+
+        /**
+         * A read sent to the active region and, if that is slow to answer, to the other region as well.
+         */
+        private class HedgedRead {
+            final Statement<?> statement;
+            final long startNanos = System.nanoTime();
+            final CompletableFuture<AsyncResultSet> result = new CompletableFuture<>();
+            // attempts that have been sent and not failed yet
+            final AtomicInteger pending = new AtomicInteger(1);
+            volatile CompletableFuture<AsyncResultSet> first;
+            volatile CompletableFuture<AsyncResultSet> hedge;
+            volatile ScheduledFuture<?> timer;
+            Region firstRegion;
+
+            HedgedRead(Statement<?> statement) {
+                this.statement = statement;
+            }
+
+            CompletionStage<AsyncResultSet> start(Region firstRegion, Region secondRegion, long delayNanos) {
+                this.firstRegion = firstRegion;
+                first = send(firstRegion, false);
+                timer = monitor.schedule(() -> {
+                    if (!result.isDone()) {
+                        pending.incrementAndGet();
+                        hedgesSent.increment();
+                        hedge = send(secondRegion, true);
+                        // the first attempt may have won while the hedge was being sent, before onWin could see it
+                        if (result.isDone()) {
+                            hedge.cancel(true);
                         }
-                    })
-                    .thenCompose(x -> x)
-                    .handle((CqlSession f, Throwable t) -> {
-                    if (f != null) {
-                        this.fallback = f;
                     }
-                    if (t != null) {
-                        LOG.warn("failed to connect to fallback", t);
+                }, delayNanos, TimeUnit.NANOSECONDS);
+                return result;
+            }
+
+            private CompletableFuture<AsyncResultSet> send(Region region, boolean isHedge) {
+                long sent = System.nanoTime();
+                CompletableFuture<AsyncResultSet> attempt = region.session.executeAsync(statement).toCompletableFuture();
+                attempt.whenComplete((rs, t) -> {
+                    if (t instanceof CancellationException) {
+                        // the other attempt won
+                        return;
                     }
-                    return CompletableFuture.completedFuture(null);
-                }));
+                    region.record(sent, t);
+                    if (t == null) {
+                        if (result.complete(rs)) {
+                            onWin(isHedge);
+                        }
+                    } else if (pending.decrementAndGet() == 0) {
+                        result.completeExceptionally(t);
+                    }
+                    maybeSwitch();
+                });
+                return attempt;
+            }
+
+            private void onWin(boolean isHedge) {
+                // may not be set yet if the first attempt completed immediately, the timer then finds result done
+                ScheduledFuture<?> pendingHedge = timer;
+                if (pendingHedge != null) {
+                    pendingHedge.cancel(false);
+                }
+                CompletableFuture<AsyncResultSet> loser = isHedge ? first : hedge;
+                if (loser != null) {
+                    loser.cancel(true);
+                }
+                if (isHedge) {
+                    hedgeWins.increment();
+                    firstRegion.outrunNanos.add(System.nanoTime() - startNanos);
+                }
+            }
         }
 
-        // use carefully - not thread-safe
-        public CqlSession get() {
-            return primary != null ? primary : fallback;
+        // a request cancelled by a winning hedge would have taken longer than it had already waited: estimate by how
+        // much from the region's recent latencies above that point
+        private void accountHedgeWins(Region region) {
+            Long elapsed;
+            while ((elapsed = region.outrunNanos.poll()) != null) {
+                hedgeSavedNanos.add(region.latency.getMeanAboveNanos(elapsed) - elapsed);
+            }
         }
 
-        CompletionStage<Void> closeFuture;
+        private CompletionStage<AsyncResultSet> executeHedged(Statement<?> statement) {
+            hedgeEligible.increment();
+            Region first = active.get();
+            Region second = first == primary ? fallback : primary;
+            long delay = hedgeDelayNanos;
+            if (delay < 0 || second.session == null) {
+                return execute(first, statement, Statement.ASYNC);
+            }
+            return new HedgedRead(statement).start(first, second, delay);
+        }
+
+        public String getHedgeStats() {
+            accountHedgeWins(primary);
+            accountHedgeWins(fallback);
+            long eligible = hedgeEligible.sum();
+            long sent = hedgesSent.sum();
+            long wins = hedgeWins.sum();
+            return String.format("hedged %d of %d reads (%.1f%%), hedge won %d, estimated %.1f ms saved (%.2f ms per hedge win)",
+                    sent, eligible, eligible == 0 ? 0.0 : 100.0 * sent / eligible, wins,
+                    hedgeSavedNanos.sum() / 1e6, wins == 0 ? 0.0 : hedgeSavedNanos.sum() / 1e6 / wins);
+        }
+
+        private final CompletableFuture<Void> closeFuture = new CompletableFuture<>();
 
         @NonNull
         @Override
@@ -109,20 +402,28 @@ public class AstraMultiRegion {
         @NonNull
         @Override
         public CompletionStage<Void> closeAsync() {
-            closeFuture = CompletableFuture.completedFuture(null);
-            if (this.primary != null) {
-                closeFuture = closeFuture.whenCompleteAsync((v, t) -> this.primary.closeAsync());
-            }
-            if (this.fallback != null) {
-                closeFuture = closeFuture.whenCompleteAsync((v, t) -> this.fallback.closeAsync());
-            }
-            return closeFuture;
+            return close(CqlSession::closeAsync);
         }
 
         @NonNull
         @Override
         public CompletionStage<Void> forceCloseAsync() {
-            return closeAsync();
+            return close(CqlSession::forceCloseAsync);
+        }
+
+        private CompletionStage<Void> close(Function<CqlSession, CompletionStage<Void>> closer) {
+            monitor.shutdownNow();
+            if (hedgePercentile > 0) {
+                LOG.info("Cross-region hedging: {}", getHedgeStats());
+            }
+            List<CompletionStage<Void>> closing = new ArrayList<>();
+            for (Region region : Arrays.asList(primary, fallback)) {
+                if (region.session != null) {
+                    closing.add(closer.apply(region.session));
+                }
+            }
+            CompletableFutures.allDone(closing).thenRun(() -> closeFuture.complete(null));
+            return closeFuture;
         }
 
         @NonNull
@@ -180,8 +481,33 @@ public class AstraMultiRegion {
 
         @Nullable
         @Override
+        @SuppressWarnings("unchecked")
         public <RequestT extends Request, ResultT> ResultT execute(@NonNull RequestT request, @NonNull GenericType<ResultT> resultType) {
-            return get().execute(request, resultType);
+            if (hedgePercentile > 0 && Statement.ASYNC.equals(resultType) && request instanceof Statement && isIdempotentRead((Statement<?>) request)) {
+                return (ResultT) executeHedged((Statement<?>) request);
+            }
+            return execute(active.get(), request, resultType);
+        }
+
+        private <RequestT extends Request, ResultT> ResultT execute(Region region, RequestT request, GenericType<ResultT> resultType) {
+            long start = System.nanoTime();
+            ResultT result;
+            try {
+                result = region.session.execute(request, resultType);
+            } catch (RuntimeException e) {
+                region.record(start, e);
+                maybeSwitch();
+                throw e;
+            }
+            if (result instanceof CompletionStage) {
+                ((CompletionStage<?>) result).whenComplete((r, t) -> {
+                    region.record(start, t);
+                    maybeSwitch();
+                });
+            } else {
+                region.record(start, null);
+            }
+            return result;
         }
     }
 }
@@ -1,7 +1,10 @@
 package com.datastax.astra.driver.examples;
 
 import com.datastax.astra.driver.examples.common.ConnectionOptions;
+import com.datastax.astra.driver.examples.common.DriverMetricsExporter;
+import com.datastax.astra.driver.examples.common.FlightRecorder;
 import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.PoolTuner;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
 import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
@@ -25,24 +28,33 @@ public class AstraSingleRegion {
 
     // Populate AstraDB using the provided connection options
     public static void run(ConnectionOptions options) {
+        FlightRecorder.start(options.getProfile());
+        try (CqlSession cqlSession = connect(options)) {
+            if (options.getIterations() == 0) {
+                return;
+            }
+            Operations.runDemo(cqlSession, options);
+        }
+    }
+
+    // Connect to AstraDB using the provided secure connect bundle and credentials
+    public static CqlSession connect(ConnectionOptions options) {
         final String keyspace = options.getKeyspace();
 
         final String username = Strings.isNullOrEmpty(options.getAstraToken()) ? options.getClientId() : "token";
         final String password = Strings.isNullOrEmpty(options.getAstraToken()) ? options.getSecret() : options.getAstraToken();
 
-        DriverConfigLoader config = DriverConfigLoader.fromClasspath("astra.conf");
+        DriverConfigLoader config = PoolTuner.configLoader(options, "astra.conf");
         CqlSessionBuilder sessionBuilder = CqlSession.builder()
                 .withCloudSecureConnectBundle(Paths.get(options.getAstraSecureConnectBundle()))
                 .withAuthCredentials(username, password)
-                .withKeyspace(keyspace);
+                .withKeyspace(keyspace)
+                .addSchemaChangeListener(Operations.DEMO_STATEMENTS);
 
         LOG.debug("Creating connection using '{}'", options.getAstraSecureConnectBundle());
         LOG.debug("Using keyspace '{}'", keyspace);
-        try (CqlSession cqlSession = Operations.connect(sessionBuilder, config)) {
-            if (options.getIterations() == 0) {
-                return;
-            }
-            Operations.runDemo(cqlSession, options.getIterations());
-        }
+        CqlSession session = Operations.connect(sessionBuilder, config);
+        DriverMetricsExporter.export(session, options);
+        return session;
     }
 }
@@ -0,0 +1,73 @@
+package com.datastax.astra.driver.examples;
+
+import com.datastax.astra.driver.examples.common.BulkLoader;
+import com.datastax.astra.driver.examples.common.ConnectionOptions;
+import com.datastax.astra.driver.examples.common.FlightRecorder;
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.RetryExecutor;
+import com.datastax.astra.driver.examples.common.WorkloadMetrics;
+import com.datastax.astra.driver.examples.common.WriteBatcher;
+import com.datastax.astra.driver.examples.standin.StandInCluster;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.shaded.guava.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+
+/**
+ * Sample app that loads a CSV or newline delimited JSON file into a table, see {@link BulkLoader} for the formats.
+ * Connects to AstraDB when given a Secure Connect Bundle, otherwise to the local cluster or, with {@code --standIn},
+ * to the in-process stand-in. The demo table is created first if it is the one being loaded.
+ * <p>
+ * Exits with status 1 if some rows could not be loaded.
+ */
+public class BulkLoad {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BulkLoad.class);
+
+    // Entry point, parse args and call run
+    public static void main(String[] args) {
+        ConnectionOptions.fromArgs(BulkLoad.class, args).ifPresent(options -> System.exit(run(options) ? 0 : 1));
+    }
+
+    // Load the input file, true if every row was loaded
+    public static boolean run(ConnectionOptions options) {
+        FlightRecorder.start(options.getProfile());
+        if (options.getInput() == null) {
+            LOG.error("Nothing to load, pass the file with --input");
+            return false;
+        }
+        if (!Strings.isNullOrEmpty(options.getAstraSecureConnectBundle())) {
+            try (CqlSession cqlSession = AstraSingleRegion.connect(options)) {
+                return load(cqlSession, options);
+            }
+        }
+        if (!options.hasStandIn()) {
+            try (CqlSession cqlSession = LocalCluster.connect(options)) {
+                return load(cqlSession, options);
+            }
+        }
+        try (StandInCluster standIn = new StandInCluster("datacenter1", 9042, 9043, 9045).withBehavior(options.getStandIn()).start();
+             CqlSession cqlSession = LocalCluster.connect(options)) {
+            return load(cqlSession, options);
+        }
+    }
+
+    public static boolean load(CqlSession session, ConnectionOptions options) {
+        if (options.getTable().equals(Operations.DEMO_TABLE)) {
+            session.execute(Operations.buildCreateTableCql(Operations.DEMO_TABLE));
+        }
+        try (WorkloadMetrics metrics = WorkloadMetrics.fromOptions(options);
+             RetryExecutor retry = RetryExecutor.fromOptions(options, metrics);
+             WriteBatcher batcher = options.isBatching() ? WriteBatcher.fromOptions(session, retry, metrics, options) : null) {
+            BulkLoader loader = new BulkLoader(session, options.getTable(), options.getFormat(), retry, batcher,
+                    options.getThreads(), options.getConcurrency(), options.getRate(), options.getReportInterval());
+            return loader.load(Paths.get(options.getInput())) == 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -1,7 +1,11 @@
 package com.datastax.astra.driver.examples;
 
 import com.datastax.astra.driver.examples.common.ConnectionOptions;
+import com.datastax.astra.driver.examples.common.DriverMetricsExporter;
+import com.datastax.astra.driver.examples.common.FlightRecorder;
 import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.PoolTuner;
+import com.datastax.astra.driver.examples.standin.StandInCluster;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
 import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
@@ -16,15 +20,35 @@ public class LocalCluster {
     }
 
     public static void run(ConnectionOptions options) {
-        DriverConfigLoader config = DriverConfigLoader.fromClasspath("astra.conf");
+        FlightRecorder.start(options.getProfile());
+        if (options.hasStandIn()) {
+            // same ports as the real local cluster, so nothing else changes
+            try (StandInCluster standIn = new StandInCluster("datacenter1", 9042, 9043, 9045).withBehavior(options.getStandIn()).start()) {
+                connectAndRun(options);
+            }
+        } else {
+            connectAndRun(options);
+        }
+    }
+
+    private static void connectAndRun(ConnectionOptions options) {
+        try (CqlSession cqlSession = connect(options)) {
+            Operations.runDemo(cqlSession, options);
+        }
+    }
+
+    // Connect to the local cluster (or stand-in) on 127.0.0.1:9042/9043/9045
+    public static CqlSession connect(ConnectionOptions options) {
+        DriverConfigLoader config = PoolTuner.configLoader(options, "astra.conf");
         CqlSessionBuilder sessionBuilder = CqlSession.builder()
                 .withKeyspace(options.getKeyspace())
+                .addSchemaChangeListener(Operations.DEMO_STATEMENTS)
                 .addContactPoint(InetSocketAddress.createUnresolved("127.0.0.1", 9042))
                 .addContactPoint(InetSocketAddress.createUnresolved("127.0.0.1", 9043))
                 .addContactPoint(InetSocketAddress.createUnresolved("127.0.0.1", 9045));
-        try (CqlSession cqlSession = Operations.connect(sessionBuilder, config)) {
-            Operations.runDemo(cqlSession, options.getIterations());
-        }
+        CqlSession session = Operations.connect(sessionBuilder, config);
+        DriverMetricsExporter.export(session, options);
+        return session;
     }
 
 }
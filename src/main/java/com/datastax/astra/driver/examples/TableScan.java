@@ -0,0 +1,150 @@
+package com.datastax.astra.driver.examples;
+
+import com.datastax.astra.driver.examples.common.ConnectionOptions;
+import com.datastax.astra.driver.examples.common.FlightRecorder;
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.RetryExecutor;
+import com.datastax.astra.driver.examples.common.TokenRangeScanner;
+import com.datastax.astra.driver.examples.common.WorkloadMetrics;
+import com.datastax.astra.driver.examples.standin.StandInCluster;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinition;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.registry.CodecRegistry;
+import com.datastax.oss.driver.shaded.guava.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Sample app that reads a whole table by scanning token ranges in parallel, counting its rows or exporting them to a
+ * file. Connects to AstraDB when given a Secure Connect Bundle, otherwise to the local cluster. The in-process
+ * stand-in starts empty, so with {@code --standIn} the demo first runs {@code --iterations} times to fill the table.
+ * <p>
+ * Exits with status 1 if some ranges could not be scanned. With {@code --resumeFile} those ranges are written to that
+ * file, and the next run with the same file only scans them.
+ */
+public class TableScan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TableScan.class);
+
+    // Entry point, parse args and call run
+    public static void main(String[] args) {
+        ConnectionOptions.fromArgs(TableScan.class, args).ifPresent(options -> System.exit(run(options) ? 0 : 1));
+    }
+
+    // Scan the table, true if every range was scanned
+    public static boolean run(ConnectionOptions options) {
+        FlightRecorder.start(options.getProfile());
+        if (!Strings.isNullOrEmpty(options.getAstraSecureConnectBundle())) {
+            try (CqlSession cqlSession = AstraSingleRegion.connect(options)) {
+                return scan(cqlSession, options);
+            }
+        }
+        if (!options.hasStandIn()) {
+            try (CqlSession cqlSession = LocalCluster.connect(options)) {
+                return scan(cqlSession, options);
+            }
+        }
+        try (StandInCluster standIn = new StandInCluster("datacenter1", 9042, 9043, 9045).withBehavior(options.getStandIn()).start();
+             CqlSession cqlSession = LocalCluster.connect(options)) {
+            Operations.runDemo(cqlSession, options);
+            return scan(cqlSession, options);
+        }
+    }
+
+    public static boolean scan(CqlSession session, ConnectionOptions options) {
+        try (WorkloadMetrics metrics = WorkloadMetrics.fromOptions(options);
+             RetryExecutor retry = RetryExecutor.fromOptions(options, metrics);
+             Export export = options.getOutput() != null ? new Export(Paths.get(options.getOutput()), session.getContext().getCodecRegistry()) : null) {
+            TokenRangeScanner scanner = new TokenRangeScanner(session, options.getTable(), options.getPartitionKey(), retry,
+                    options.getConcurrency(), Runtime.getRuntime().availableProcessors(), options.getReportInterval());
+            Path resumeFile = options.getResumeFile() != null ? Paths.get(options.getResumeFile()) : null;
+
+            List<TokenRangeScanner.Split> splits;
+            if (resumeFile != null && Files.exists(resumeFile)) {
+                splits = Files.readAllLines(resumeFile, StandardCharsets.UTF_8).stream()
+                        .filter(line -> !line.trim().isEmpty())
+                        .map(scanner::parse)
+                        .collect(Collectors.toList());
+                LOG.info("Resuming the scan of '{}' with the {} ranges listed in {}", options.getTable(), splits.size(), resumeFile);
+            } else {
+                splits = scanner.split(options.getSplits());
+                LOG.info("Scanning '{}' in {} ranges, {} at a time", options.getTable(), splits.size(), options.getConcurrency());
+            }
+
+            List<TokenRangeScanner.Split> unfinished = scanner.scan(splits, export != null ? export : row -> { });
+
+            List<String> lines = unfinished.stream().map(scanner::format).collect(Collectors.toList());
+            if (resumeFile != null) {
+                if (lines.isEmpty()) {
+                    Files.deleteIfExists(resumeFile);
+                } else {
+                    Files.write(resumeFile, lines, StandardCharsets.UTF_8);
+                    LOG.warn("{} ranges could not be scanned, run again with --resumeFile={} to resume them", lines.size(), resumeFile);
+                }
+            } else if (!lines.isEmpty()) {
+                LOG.warn("{} ranges could not be scanned, pass --resumeFile to be able to resume them: {}", lines.size(), lines);
+            }
+            return lines.isEmpty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes each row as one line of comma separated CQL literals, after a line with the column names.
+     */
+    private static class Export implements Consumer<Row>, AutoCloseable {
+        private final BufferedWriter out;
+        private final CodecRegistry codecs;
+        private boolean header;
+
+        Export(Path file, CodecRegistry codecs) throws IOException {
+            this.out = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+            this.codecs = codecs;
+        }
+
+        @Override
+        public void accept(Row row) {
+            // format outside the lock, rows arrive from several threads
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < row.size(); i++) {
+                TypeCodec<Object> codec = codecs.codecFor(row.getType(i));
+                line.append(i > 0 ? "," : "").append(codec.format(row.getObject(i)));
+            }
+            line.append('\n');
+            try {
+                synchronized (this) {
+                    if (!header) {
+                        StringBuilder names = new StringBuilder();
+                        for (ColumnDefinition column : row.getColumnDefinitions()) {
+                            names.append(names.length() > 0 ? "," : "").append(column.getName().asCql(true));
+                        }
+                        out.write(names.append('\n').toString());
+                        header = true;
+                    }
+                    out.write(line.toString());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.config.DriverOption;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.session.Request;
+import com.datastax.oss.driver.api.core.specex.SpeculativeExecutionPolicy;
+import com.datastax.oss.driver.api.core.tracker.RequestTracker;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Speculative execution policy that waits for a percentile of each node's recent latency before sending the request
+ * to the next node, instead of a constant delay. A node that normally answers in 40 ms is not speculated on after
+ * 50 ms, and a node that answers in 2 ms is not waited on for 50 ms either. Scheduled speculative executions are
+ * capped at a fraction of requests so that a node slowing down cannot double the load on the others; the ones that
+ * are sent are a subset of those.
+ * <p>
+ * Latencies are recorded by {@link Tracker}, which must be registered as a request tracker as well:
+ * <pre>
+ * advanced {
+ *   speculative-execution-policy {
+ *     class = com.datastax.astra.driver.examples.common.AdaptiveSpeculativeExecutionPolicy
+ *     max-executions = 2
+ *     delay = 50 milliseconds  # until a node has enough samples
+ *     percentile = 95
+ *     max-fraction = 0.1
+ *     window = 30 seconds
+ *   }
+ *   request-tracker.classes = [ "com.datastax.astra.driver.examples.common.AdaptiveSpeculativeExecutionPolicy$Tracker" ]
+ * }
+ * </pre>
+ * How often speculative executions fired and won is logged when the session closes.
+ */
+public class AdaptiveSpeculativeExecutionPolicy implements SpeculativeExecutionPolicy {
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveSpeculativeExecutionPolicy.class);
+
+    /**
+     * Settings under {@code advanced.speculative-execution-policy}, next to the driver's own.
+     */
+    public enum Option implements DriverOption {
+        PERCENTILE("advanced.speculative-execution-policy.percentile"),
+        MAX_FRACTION("advanced.speculative-execution-policy.max-fraction"),
+        WINDOW("advanced.speculative-execution-policy.window");
+
+        private final String path;
+
+        Option(String path) {
+            this.path = path;
+        }
+
+        @NonNull
+        @Override
+        public String getPath() {
+            return path;
+        }
+    }
+
+    // the window slides in this many steps, and a node's percentile is only trusted once it has enough samples
+    private static final int WINDOW_INTERVALS = 10;
+    private static final long MIN_SAMPLES = 100;
+    // speculative executions that can be saved up while under the cap
+    private static final int BURST = 10;
+
+    // shared by the policies of every execution profile and the tracker of one session
+    private static final ConcurrentMap<DriverContext, Latencies> LATENCIES = new ConcurrentHashMap<>();
+
+    private final String logPrefix;
+    private final Latencies latencies;
+    private final int maxExecutions;
+    private final double maxFraction;
+    private final RetryBudget budget;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder fired = new LongAdder();
+    private final LongAdder capped = new LongAdder();
+
+    public AdaptiveSpeculativeExecutionPolicy(DriverContext context, String profileName) {
+        DriverExecutionProfile profile = context.getConfig().getProfile(profileName);
+        this.logPrefix = context.getSessionName() + "|" + profileName;
+        this.maxExecutions = profile.getInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX);
+        if (maxExecutions < 1) {
+            throw new IllegalArgumentException("Max must be at least 1");
+        }
+        this.maxFraction = profile.getDouble(Option.MAX_FRACTION, 0.1);
+        this.budget = new RetryBudget(maxFraction, BURST);
+        this.latencies = LATENCIES.computeIfAbsent(context, c -> new Latencies(c, profile));
+        this.latencies.users.incrementAndGet();
+        if (!profile.getStringList(DefaultDriverOption.REQUEST_TRACKER_CLASSES, Collections.emptyList()).contains(Tracker.class.getName())) {
+            LOG.warn("[{}] {} is not a configured request tracker, speculative executions will always wait {} ms",
+                    logPrefix, Tracker.class.getName(), latencies.initialDelayMillis);
+        }
+    }
+
+    @Override
+    public long nextExecution(@NonNull Node node, @Nullable CqlIdentifier keyspace, @NonNull Request request, int runningExecutions) {
+        if (runningExecutions == 1) {
+            requests.increment();
+            budget.onRequest();
+        } else {
+            // called as the previous speculative execution is sent, its token was taken when it was scheduled
+            fired.increment();
+        }
+        if (runningExecutions >= maxExecutions) {
+            return -1;
+        }
+        // taken now rather than when the execution is sent, so concurrent requests cannot all schedule on the same
+        // token; it is not given back if the request is answered before the execution is sent
+        if (!budget.tryRetry()) {
+            capped.increment();
+            return -1;
+        }
+        return latencies.getDelayMillis(node);
+    }
+
+    /**
+     * Idempotent requests the policy was asked about. The driver does not ask for requests answered before it
+     * noticed they were written.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getFired() {
+        return fired.sum();
+    }
+
+    /**
+     * Requests answered by an execution started after the first one, for all profiles of the session. Estimated from
+     * the gap between the request's and the answering execution's latency.
+     */
+    public long getWins() {
+        return latencies.wins.sum();
+    }
+
+    /**
+     * Requests that got no speculative execution scheduled because the cap was reached.
+     */
+    public long getCapped() {
+        return capped.sum();
+    }
+
+    /**
+     * Current delay before speculating on each node, in milliseconds.
+     */
+    public Map<Node, Long> getDelays() {
+        return latencies.getDelays();
+    }
+
+    @Override
+    public void close() {
+        long requests = getRequests();
+        if (requests > 0) {
+            LOG.info("[{}] Speculative executions fired for {} of {} idempotent requests ({}%), won {}, {} went without one because the {}% cap was reached; delays {}",
+                    logPrefix, getFired(), requests, String.format("%.1f", 100.0 * getFired() / requests), getWins(),
+                    getCapped(), 100 * maxFraction, latencies);
+        }
+        latencies.release();
+    }
+
+    /**
+     * Records successful response times per node for the policy of the same session.
+     */
+    public static class Tracker implements RequestTracker {
+        private final DriverContext context;
+        // latency of the execution that answered, handed from onNodeSuccess to onSuccess on the same thread
+        private final ThreadLocal<long[]> nodeLatency = ThreadLocal.withInitial(() -> new long[1]);
+
+        public Tracker(DriverContext context) {
+            this.context = context;
+        }
+
+        @Override
+        public void onNodeSuccess(@NonNull Request request, long latencyNanos, @NonNull DriverExecutionProfile executionProfile,
+                                  @NonNull Node node, @NonNull String requestLogPrefix) {
+            nodeLatency.get()[0] = latencyNanos;
+            Latencies latencies = LATENCIES.get(context);
+            if (latencies != null) {
+                latencies.record(node, latencyNanos);
+            }
+        }
+
+        @Override
+        public void onSuccess(@NonNull Request request, long latencyNanos, @NonNull DriverExecutionProfile executionProfile,
+                              @NonNull Node node, @NonNull String requestLogPrefix) {
+            Latencies latencies = LATENCIES.get(context);
+            // the answering execution started well after the request, so it was not the first one (or, rarely, it
+            // was a retry of the first one)
+            if (latencies != null && latencyNanos - nodeLatency.get()[0] >= latencies.getWinThresholdNanos()) {
+                latencies.wins.increment();
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static class NodeLatency {
+        final SlidingWindowHistogram histogram = new SlidingWindowHistogram(WINDOW_INTERVALS);
+        volatile long delayMillis;
+
+        NodeLatency(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+    }
+
+    private static class Latencies {
+        private final DriverContext context;
+        final long initialDelayMillis;
+        // executions are scheduled on the driver's timer, shorter delays than its tick are rounded up anyway
+        final long minDelayMillis;
+        final double percentile;
+        private final ConcurrentMap<Node, NodeLatency> nodes = new ConcurrentHashMap<>();
+        private final ScheduledFuture<?> rotation;
+        final LongAdder wins = new LongAdder();
+        final AtomicInteger users = new AtomicInteger();
+
+        Latencies(DriverContext context, DriverExecutionProfile profile) {
+            this.context = context;
+            this.initialDelayMillis = profile.getDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, Duration.ofMillis(50)).toMillis();
+            this.minDelayMillis = Math.max(1, context.getConfig().getDefaultProfile().getDuration(DefaultDriverOption.NETTY_TIMER_TICK_DURATION).toMillis());
+            this.percentile = profile.getDouble(Option.PERCENTILE, 95.0);
+            long interval = profile.getDuration(Option.WINDOW, Duration.ofSeconds(30)).toNanos() / WINDOW_INTERVALS;
+            // percentiles are recomputed off the request path, requests only read the resulting delay
+            this.rotation = ((InternalDriverContext) context).getNettyOptions().adminEventExecutorGroup().next()
+                    .scheduleAtFixedRate(this::rotate, interval, interval, TimeUnit.NANOSECONDS);
+        }
+
+        void record(Node node, long latencyNanos) {
+            nodes.computeIfAbsent(node, n -> new NodeLatency(initialDelayMillis)).histogram.recordNanos(latencyNanos);
+        }
+
+        long getDelayMillis(Node node) {
+            NodeLatency latency = nodes.get(node);
+            return latency == null ? initialDelayMillis : latency.delayMillis;
+        }
+
+        private void rotate() {
+            for (NodeLatency latency : nodes.values()) {
+                latency.histogram.rotate();
+                latency.delayMillis = latency.histogram.getTotalCount() >= MIN_SAMPLES
+                        ? Math.max(minDelayMillis, TimeUnit.NANOSECONDS.toMillis(latency.histogram.getValueAtPercentileNanos(percentile)))
+                        : initialDelayMillis;
+            }
+        }
+
+        /**
+         * Half the shortest delay before a speculative execution, and at least a millisecond.
+         */
+        long getWinThresholdNanos() {
+            long delay = initialDelayMillis;
+            for (NodeLatency latency : nodes.values()) {
+                delay = Math.min(delay, latency.delayMillis);
+            }
+            return Math.max(TimeUnit.MILLISECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(delay) / 2);
+        }
+
+        Map<Node, Long> getDelays() {
+            Map<Node, Long> delays = new ConcurrentHashMap<>();
+            nodes.forEach((node, latency) -> delays.put(node, latency.delayMillis));
+            return delays;
+        }
+
+        void release() {
+            if (users.decrementAndGet() <= 0) {
+                rotation.cancel(false);
+                LATENCIES.remove(context, this);
+            }
+        }
+
+        @Override
+        public String toString() {
+            Map<String, Long> delays = new TreeMap<>();
+            nodes.forEach((node, latency) -> delays.put(node.getEndPoint().toString(), latency.delayMillis));
+            return delays + " ms";
+        }
+    }
+}
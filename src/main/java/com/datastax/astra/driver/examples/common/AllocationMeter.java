@@ -0,0 +1,45 @@
+package com.datastax.astra.driver.examples.common;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Bytes allocated on the heap by all live threads, as reported by the JVM's {@link ThreadMXBean}.
+ * Allocations made by threads that have since exited are no longer counted, which is fine for the long-lived
+ * driver and workload threads this is meant for. Virtual threads are not counted either, so {@link WorkloadMetrics}
+ * reports n/a for runs that use them.
+ */
+public class AllocationMeter {
+    private final com.sun.management.ThreadMXBean threads;
+
+    public AllocationMeter() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            this.threads = (com.sun.management.ThreadMXBean) bean;
+            this.threads.setThreadAllocatedMemoryEnabled(true);
+        } else {
+            this.threads = null;
+        }
+    }
+
+    public boolean isSupported() {
+        return threads != null;
+    }
+
+    /**
+     * Total bytes allocated so far, -1 if the JVM cannot tell.
+     */
+    public long getAllocatedBytes() {
+        if (threads == null) {
+            return -1;
+        }
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            // -1 for threads that exited in the meantime
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,137 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Repeatedly runs an asynchronous operation keeping at most {@code concurrency} operations in flight.
+ * The submitting thread blocks on a permit pool once that bound is reached, so a slow cluster slows the loop
+ * down instead of queueing an unbounded number of requests.
+ * <p>
+ * With a target rate the runner is open-loop instead: iteration {@code i} is scheduled to start at
+ * {@code start + i / rate} whether or not earlier iterations have finished. Operations receive that intended start
+ * time and should measure latency from it, so time spent waiting behind a stalled cluster (or an exhausted permit
+ * pool) is counted rather than omitted. How far sends fall behind the timeline is reported as schedule lag.
+ */
+public class AsyncWorkloadRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncWorkloadRunner.class);
+
+    /**
+     * One iteration of a workload, must not block the calling thread.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * @param iteration          zero-based iteration number
+         * @param intendedStartNanos {@link System#nanoTime()} at which this iteration should have started
+         */
+        CompletionStage<?> run(long iteration, long intendedStartNanos);
+    }
+
+    private final int concurrency;
+    private final double rate;
+    private final WorkloadMetrics metrics;
+    private final Semaphore permits;
+    private final LongAdder completed = new LongAdder();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    public AsyncWorkloadRunner(int concurrency) {
+        this(concurrency, 0, null);
+    }
+
+    /**
+     * @param rate    target iterations per second, 0 or less for a closed loop
+     * @param metrics where schedule lag is recorded in open-loop mode, may be null
+     */
+    public AsyncWorkloadRunner(int concurrency, double rate, WorkloadMetrics metrics) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.metrics = metrics;
+        this.permits = new Semaphore(concurrency);
+    }
+
+    /**
+     * Run {@code operation} {@code iterations} times (forever if negative) and wait for all of them to finish.
+     * The first failed iteration stops the loop and is rethrown once in-flight iterations have drained.
+     */
+    public void run(long iterations, Operation operation) {
+        LOG.debug("Running {} iterations with up to {} in flight, target rate {}/s", iterations, concurrency, rate > 0 ? rate : "unbounded");
+        final double intervalNanos = rate > 0 ? 1e9 / rate : 0;
+        final long startNanos = System.nanoTime();
+        long i = 0;
+        // intentional != check so that setting iterations < 0 will loop forever
+        while (i != iterations && failure.get() == null) {
+            long intendedStart;
+            if (intervalNanos > 0) {
+                intendedStart = startNanos + (long) (i * intervalNanos);
+                long wait;
+                while ((wait = intendedStart - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                permits.acquireUninterruptibly();
+                if (metrics != null) {
+                    metrics.recordScheduleLag(System.nanoTime() - intendedStart);
+                }
+            } else {
+                permits.acquireUninterruptibly();
+                intendedStart = System.nanoTime();
+            }
+            CompletionStage<?> stage;
+            try {
+                stage = operation.run(i++, intendedStart);
+            } catch (Throwable t) {
+                stage = CompletableFutures.failedFuture(t);
+            }
+            stage.whenComplete((r, t) -> {
+                if (t != null) {
+                    failure.compareAndSet(null, unwrap(t));
+                } else {
+                    completed.increment();
+                }
+                permits.release();
+            });
+        }
+
+        // wait for in-flight iterations to drain
+        permits.acquireUninterruptibly(concurrency);
+        permits.release(concurrency);
+
+        Throwable t = failure.get();
+        if (t != null) {
+            if (t instanceof RuntimeException) {
+                throw (RuntimeException) t;
+            }
+            throw new CompletionException(t);
+        }
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+
+    static Throwable unwrap(Throwable t) {
+        while (t instanceof CompletionException && t.getCause() != null) {
+            t = t.getCause();
+        }
+        return t;
+    }
+}
@@ -0,0 +1,98 @@
+package com.datastax.astra.driver.examples.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a blocking operation with at most {@code concurrency} iterations at once, each on a thread of its own: a pool
+ * of {@code concurrency} platform threads, or a new virtual thread per iteration (Java 21, see
+ * {@link VirtualThreads}). Virtual threads are cheap enough for thousands of blocking iterations in flight, which
+ * gives plain {@code execute} calls the concurrency of the asynchronous API.
+ * <p>
+ * Iterations are scheduled by an {@link AsyncWorkloadRunner}, so the concurrency bound, the open-loop rate and
+ * the failure handling are the same.
+ */
+public class BlockingWorkloadRunner {
+
+    /**
+     * One iteration of a workload, may block.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * @param iteration          zero-based iteration number
+         * @param intendedStartNanos {@link System#nanoTime()} at which this iteration should have started
+         */
+        void run(long iteration, long intendedStartNanos);
+    }
+
+    private final AsyncWorkloadRunner runner;
+    private final boolean virtualThreads;
+
+    public BlockingWorkloadRunner(int concurrency, boolean virtualThreads) {
+        this(concurrency, 0, null, virtualThreads);
+    }
+
+    /**
+     * @param rate    target iterations per second, 0 or less for a closed loop
+     * @param metrics where schedule lag is recorded in open-loop mode, may be null
+     */
+    public BlockingWorkloadRunner(int concurrency, double rate, WorkloadMetrics metrics, boolean virtualThreads) {
+        if (virtualThreads && !VirtualThreads.isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 and running from the jar built with it by the jdk21 profile");
+        }
+        this.runner = new AsyncWorkloadRunner(concurrency, rate, metrics);
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Run {@code operation} {@code iterations} times (forever if negative) and wait for all of them to finish.
+     * The first failed iteration stops the loop and is rethrown once in-flight iterations have drained.
+     */
+    public void run(long iterations, Operation operation) {
+        ExecutorService threads = newThreads();
+        try {
+            run(iterations, operation, threads);
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    /**
+     * Same as {@link #run(long, Operation)} on threads from {@link #newThreads()} that the caller keeps across runs,
+     * e.g. so that a benchmark does not measure starting them.
+     */
+    public void run(long iterations, Operation operation, ExecutorService threads) {
+        runner.run(iterations, (i, intendedStart) -> CompletableFuture.runAsync(() -> operation.run(i, intendedStart), threads));
+    }
+
+    /**
+     * The threads iterations run on, to be shut down by the caller.
+     */
+    public ExecutorService newThreads() {
+        return virtualThreads ? VirtualThreads.newThreadPerTaskExecutor("demo-virtual") : platformThreads(runner.getConcurrency());
+    }
+
+    private static ExecutorService platformThreads(int count) {
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(count, r -> {
+            Thread t = new Thread(r, "demo-worker-" + index.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public int getConcurrency() {
+        return runner.getConcurrency();
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public long getCompleted() {
+        return runner.getCompleted();
+    }
+}
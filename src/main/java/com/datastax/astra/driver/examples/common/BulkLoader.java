@@ -0,0 +1,472 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.ColumnDefinitions;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.type.DataType;
+import com.datastax.oss.driver.api.core.type.DataTypes;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.internal.core.util.Strings;
+import com.datastax.oss.driver.shaded.guava.common.util.concurrent.RateLimiter;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Loads a CSV or newline delimited JSON file into a table as fast as the cluster takes it.
+ * <p>
+ * The file is never read into the heap: parser threads take turns at memory-mapping the next chunk of it, and a line
+ * belongs to the chunk it starts in. Every line becomes a prepared INSERT bound with the column types of the
+ * statement, then goes to a bounded write pipeline: at most {@code concurrency} writes are in flight and parser threads
+ * wait when they are all taken, so a slow cluster slows the parsing down instead of piling up rows. An optional rate
+ * caps the rows written per second. Writes are recorded as {@link OperationType#INSERT}, and progress is logged every
+ * {@code reportIntervalSeconds}.
+ * <p>
+ * A CSV file starts with a line of column names, then has one line of comma separated CQL literals per row, which is
+ * what TableScan exports. Text, timestamps and other quoted types may also be written without their quotes. An NDJSON
+ * file has one object per line whose fields are the columns, which are taken from the first line; fields can only
+ * hold scalar values. A line that cannot be parsed or written is counted as failed and the load goes on.
+ */
+public class BulkLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(BulkLoader.class);
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /**
+         * The format of a file from its extension, CSV unless it is .json, .jsonl or .ndjson.
+         */
+        public static Format of(String path) {
+            String name = path.toLowerCase(Locale.ROOT);
+            return name.endsWith(".json") || name.endsWith(".jsonl") || name.endsWith(".ndjson") ? NDJSON : CSV;
+        }
+    }
+
+    // mapped by a parser thread at once
+    private static final long CHUNK_SIZE = 64L * 1024 * 1024;
+    // longest line supported, the last line of a chunk is read past its end
+    private static final int MAX_LINE = 1024 * 1024;
+    // failures logged in full, later ones are only counted
+    private static final int LOGGED_FAILURES = 10;
+    // types whose CQL literals are quoted
+    private static final List<DataType> QUOTED = Arrays.asList(
+            DataTypes.TEXT, DataTypes.ASCII, DataTypes.TIMESTAMP, DataTypes.DATE, DataTypes.TIME, DataTypes.INET);
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final CqlSession session;
+    private final String table;
+    private final Format format;
+    private final RetryExecutor retry;
+    private final WriteBatcher batcher;
+    private final int threads;
+    private final int concurrency;
+    private final Semaphore inFlight;
+    private final RateLimiter rateLimiter;
+    private final long reportIntervalSeconds;
+    private final long chunkSize;
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final AtomicReference<Throwable> parserFailure = new AtomicReference<>();
+
+    /**
+     * @param retry       retries failed inserts and records their latency
+     * @param batcher     groups the inserts into batches, null to write them one by one
+     * @param threads     threads parsing the file
+     * @param concurrency writes in flight at the same time
+     * @param rate        rows written per second, 0 or less for no limit
+     */
+    public BulkLoader(CqlSession session, String table, Format format, RetryExecutor retry, WriteBatcher batcher,
+                      int threads, int concurrency, double rate, long reportIntervalSeconds) {
+        this(session, table, format, retry, batcher, threads, concurrency, rate, reportIntervalSeconds, CHUNK_SIZE);
+    }
+
+    BulkLoader(CqlSession session, String table, Format format, RetryExecutor retry, WriteBatcher batcher,
+               int threads, int concurrency, double rate, long reportIntervalSeconds, long chunkSize) {
+        if (concurrency < 1 || threads < 1) {
+            throw new IllegalArgumentException("concurrency and threads must be at least 1");
+        }
+        this.session = session;
+        this.table = table;
+        this.format = format;
+        this.retry = retry;
+        this.batcher = batcher;
+        this.threads = threads;
+        this.concurrency = concurrency;
+        this.inFlight = new Semaphore(concurrency);
+        this.rateLimiter = rate > 0 ? RateLimiter.create(rate) : null;
+        this.reportIntervalSeconds = reportIntervalSeconds;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Load every line of {@code file} and wait until all of them have been written or have failed.
+     *
+     * @return the number of rows that could not be loaded
+     */
+    public long load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                LOG.info("{} is empty, nothing to load", file);
+                return 0;
+            }
+            MappedByteBuffer head = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAX_LINE));
+            int headEnd = lineEnd(head, 0);
+            if (headEnd == head.limit() && head.limit() < size) {
+                throw new IllegalArgumentException("The first line of " + file + " is longer than " + MAX_LINE + " bytes");
+            }
+            String first = stripCr(decode(head, 0, headEnd));
+            List<String> columns = format == Format.CSV ? splitFields(first) : jsonColumns(first);
+            // the CSV header is not a row, an NDJSON file has none
+            long dataStart = format == Format.CSV ? Math.min(size, headEnd + 1L) : 0;
+            PreparedStatement insert = session.prepare(SimpleStatement.newInstance(String.format("INSERT INTO %s (%s) VALUES (%s)",
+                    table, String.join(", ", columns), String.join(", ", Collections.nCopies(columns.size(), "?"))))
+                    .setIdempotent(true));
+            LOG.info("Loading {} ({} MB of {}) into '{}' with {} parser threads and up to {} writes in flight", file,
+                    size / (1024 * 1024), format, table, threads, concurrency);
+
+            long startNanos = System.nanoTime();
+            ScheduledExecutorService reporter = startReporter(size - dataStart);
+            AtomicLong nextChunk = new AtomicLong(dataStart);
+            List<Thread> parsers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Thread parser = new Thread(() -> {
+                    LineParser lines = format == Format.CSV ? new CsvParser(insert, columns) : new NdjsonParser(insert, columns);
+                    long start;
+                    try {
+                        while (parserFailure.get() == null && (start = nextChunk.getAndAdd(chunkSize)) < size) {
+                            loadChunk(channel, start, Math.min(size, start + chunkSize), size, dataStart, lines);
+                        }
+                    } catch (Throwable e) {
+                        parserFailure.compareAndSet(null, e);
+                    }
+                }, "bulk-parser-" + t);
+                parser.setDaemon(true);
+                parser.start();
+                parsers.add(parser);
+            }
+            for (Thread parser : parsers) {
+                parser.join();
+            }
+            if (batcher != null) {
+                batcher.flush();
+            }
+            // wait for in-flight writes to drain
+            inFlight.acquireUninterruptibly(concurrency);
+            inFlight.release(concurrency);
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+
+            Throwable e = parserFailure.get();
+            if (e != null) {
+                throw e instanceof IOException ? (IOException) e : new IOException("Could not read " + file, e);
+            }
+            double seconds = (System.nanoTime() - startNanos) / 1e9;
+            LOG.info(String.format(Locale.ROOT, "Loaded %d rows into '%s' in %.1f s (%.0f rows/s, %.1f MB/s), %d failed",
+                    written.sum(), table, seconds, written.sum() / seconds, bytes.sum() / seconds / (1024 * 1024), failed.sum()));
+            return failed.sum();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + file, e);
+        }
+    }
+
+    private ScheduledExecutorService startReporter(long total) {
+        if (reportIntervalSeconds <= 0) {
+            return null;
+        }
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "bulk-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        long[] last = {System.nanoTime(), 0};
+        reporter.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            long rows = written.sum();
+            LOG.info(String.format(Locale.ROOT, "Loaded %d rows, %d failed, %.0f%% of the file read, %.0f rows/s",
+                    rows, failed.sum(), 100.0 * bytes.sum() / Math.max(1, total), (rows - last[1]) / ((now - last[0]) / 1e9)));
+            last[0] = now;
+            last[1] = rows;
+        }, reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        return reporter;
+    }
+
+    // parse and write the lines starting in [start, end)
+    private void loadChunk(FileChannel channel, long start, long end, long size, long dataStart, LineParser lines) throws IOException {
+        // map from the byte before the chunk to tell whether it starts a line, and past its end to finish its last line
+        long mapStart = start == dataStart ? start : start - 1;
+        long mapEnd = Math.min(size, end + MAX_LINE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, mapStart, mapEnd - mapStart);
+        int last = (int) (end - mapStart);
+        int pos = start == dataStart ? 0 : lineEnd(buffer, 0) + 1;
+        while (pos < last) {
+            int lineEnd = lineEnd(buffer, pos);
+            if (lineEnd == buffer.limit() && mapEnd < size) {
+                throw new IOException("Line at byte " + (mapStart + pos) + " is longer than " + MAX_LINE + " bytes");
+            }
+            bytes.add(Math.min(lineEnd + 1, buffer.limit()) - pos);
+            long offset = mapStart + pos;
+            BoundStatement statement = null;
+            try {
+                statement = lines.parse(buffer, pos, lineEnd);
+            } catch (RuntimeException e) {
+                failed(offset, e);
+            }
+            if (statement != null) {
+                write(statement, offset);
+            }
+            pos = lineEnd + 1;
+        }
+    }
+
+    private void write(BoundStatement statement, long offset) {
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+        inFlight.acquireUninterruptibly();
+        long startNanos = System.nanoTime();
+        CompletionStage<?> stage;
+        try {
+            stage = batcher != null
+                    ? batcher.add(statement, startNanos)
+                    : retry.executeAsync(() -> session.executeAsync(statement), OperationType.INSERT, startNanos, statement);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            failed(offset, e);
+            return;
+        }
+        stage.whenComplete((r, t) -> {
+            if (t == null) {
+                written.increment();
+            } else {
+                failed(offset, AsyncWorkloadRunner.unwrap(t));
+            }
+            inFlight.release();
+        });
+    }
+
+    private void failed(long offset, Throwable t) {
+        failed.increment();
+        if (failed.sum() <= LOGGED_FAILURES) {
+            LOG.warn("Could not load the line at byte {}: {}", offset, t.toString());
+        }
+    }
+
+    /**
+     * Rows written so far.
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Lines that could not be parsed or written so far.
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    // index of the '\n' ending the line at pos, or the limit of the buffer
+    private static int lineEnd(MappedByteBuffer buffer, int pos) {
+        int limit = buffer.limit();
+        while (pos < limit && buffer.get(pos) != '\n') {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static String decode(MappedByteBuffer buffer, int from, int to) {
+        byte[] line = new byte[to - from];
+        for (int i = 0; i < line.length; i++) {
+            line[i] = buffer.get(from + i);
+        }
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    private static String stripCr(String line) {
+        return line.endsWith("\r") ? line.substring(0, line.length() - 1) : line;
+    }
+
+    private static List<String> jsonColumns(String line) {
+        try (JsonParser parser = JSON.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object on the first line, got '" + line + "'");
+            }
+            List<String> columns = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                columns.add(parser.getCurrentName());
+                parser.nextToken();
+                parser.skipChildren();
+            }
+            return columns;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Split a CSV line on the commas that are not in a quoted literal or nested in a collection.
+     */
+    static List<String> splitFields(String line) {
+        List<String> fields = new ArrayList<>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\'') {
+                // a doubled quote inside a literal toggles twice
+                quoted = !quoted;
+            } else if (quoted) {
+                continue;
+            } else if (c == '[' || c == '{' || c == '(') {
+                depth++;
+            } else if (c == ']' || c == '}' || c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                fields.add(line.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        fields.add(line.substring(start).trim());
+        return fields;
+    }
+
+    /**
+     * Turns one line into a bound insert, one instance per parser thread.
+     */
+    private abstract class LineParser {
+        final PreparedStatement insert;
+        final List<TypeCodec<Object>> codecs = new ArrayList<>();
+        final List<Boolean> quoted = new ArrayList<>();
+        // reused to copy lines out of the mapped buffer
+        byte[] line = new byte[1024];
+
+        LineParser(PreparedStatement insert) {
+            this.insert = insert;
+            ColumnDefinitions variables = insert.getVariableDefinitions();
+            for (int i = 0; i < variables.size(); i++) {
+                DataType type = variables.get(i).getType();
+                codecs.add(session.getContext().getCodecRegistry().codecFor(type));
+                quoted.add(QUOTED.contains(type));
+            }
+        }
+
+        // null for an empty line
+        BoundStatement parse(MappedByteBuffer buffer, int from, int to) {
+            if (to > from && buffer.get(to - 1) == '\r') {
+                to--;
+            }
+            if (to == from) {
+                return null;
+            }
+            int length = to - from;
+            if (line.length < length) {
+                line = new byte[Math.max(length, 2 * line.length)];
+            }
+            for (int i = 0; i < length; i++) {
+                line[i] = buffer.get(from + i);
+            }
+            return parse(line, length);
+        }
+
+        abstract BoundStatement parse(byte[] line, int length);
+    }
+
+    private class CsvParser extends LineParser {
+        private final int columns;
+
+        CsvParser(PreparedStatement insert, List<String> columns) {
+            super(insert);
+            this.columns = columns.size();
+        }
+
+        @Override
+        BoundStatement parse(byte[] line, int length) {
+            List<String> fields = splitFields(new String(line, 0, length, StandardCharsets.UTF_8));
+            if (fields.size() != columns) {
+                throw new IllegalArgumentException("Expected " + columns + " fields, got " + fields.size());
+            }
+            BoundStatementBuilder builder = insert.boundStatementBuilder();
+            for (int i = 0; i < columns; i++) {
+                String field = fields.get(i);
+                // accept quoted types without their quotes, an empty field is null
+                if (quoted.get(i) && !field.isEmpty() && field.charAt(0) != '\'' && !field.equalsIgnoreCase("NULL")) {
+                    field = Strings.quote(field);
+                }
+                builder = builder.set(i, codecs.get(i).parse(field), codecs.get(i));
+            }
+            return builder.build();
+        }
+    }
+
+    private class NdjsonParser extends LineParser {
+        private final Map<String, Integer> indexes = new HashMap<>();
+
+        NdjsonParser(PreparedStatement insert, List<String> columns) {
+            super(insert);
+            for (int i = 0; i < columns.size(); i++) {
+                indexes.put(columns.get(i), i);
+            }
+        }
+
+        @Override
+        BoundStatement parse(byte[] line, int length) {
+            // fields missing from a line are left unset
+            BoundStatementBuilder builder = insert.boundStatementBuilder();
+            try (JsonParser parser = JSON.createParser(line, 0, length)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("Expected a JSON object");
+                }
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String name = parser.getCurrentName();
+                    Integer i = indexes.get(name);
+                    if (i == null) {
+                        throw new IllegalArgumentException("Unknown column '" + name + "', the columns are " + indexes.keySet());
+                    }
+                    JsonToken value = parser.nextToken();
+                    if (value == JsonToken.START_OBJECT || value == JsonToken.START_ARRAY) {
+                        throw new IllegalArgumentException("Column '" + name + "' is not a scalar value");
+                    }
+                    String text = value == JsonToken.VALUE_NULL ? null
+                            : value == JsonToken.VALUE_STRING && quoted.get(i) ? Strings.quote(parser.getText()) : parser.getText();
+                    builder = builder.set(i, codecs.get(i).parse(text), codecs.get(i));
+                }
+                return builder.build();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Invalid JSON: " + e.getMessage(), e);
+            }
+        }
+    }
+}
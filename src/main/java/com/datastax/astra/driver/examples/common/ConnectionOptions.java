@@ -7,7 +7,9 @@ import org.apache.commons.cli.Option;
 import org.apache.commons.cli.Options;
 import org.apache.commons.cli.ParseException;
 
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 public class ConnectionOptions {
 
@@ -46,6 +48,156 @@ public class ConnectionOptions {
             .argName("N")
             .desc("Number of demo-loop iterations to perform (default=100)")
             .hasArg().build();
+    private static Option CONCURRENCY_OPTION = Option.builder()
+            .longOpt("concurrency")
+            .argName("N")
+            .desc("Maximum number of demo-loop iterations in flight at once (default=1)")
+            .hasArg().build();
+    private static Option RATE_OPTION = Option.builder()
+            .longOpt("rate")
+            .argName("OPS_PER_SECOND")
+            .desc("Start demo-loop iterations on a fixed schedule at this rate instead of as fast as possible, latency is measured from each scheduled start.")
+            .hasArg().build();
+    private static Option RETRY_BUDGET_OPTION = Option.builder()
+            .longOpt("retryBudget")
+            .argName("PERCENT")
+            .desc("Retries may add at most this percentage of load over the base request rate, negative for unlimited retries (default=10)")
+            .hasArg().build();
+    private static Option SLOW_REQUEST_OPTION = Option.builder()
+            .longOpt("slowRequest")
+            .argName("MS")
+            .desc("Log every request that takes at least this long, including retries, 0 to disable (default=1000)")
+            .hasArg().build();
+    private static Option HEDGE_PERCENTILE_OPTION = Option.builder()
+            .longOpt("hedgePercentile")
+            .argName("PERCENTILE")
+            .desc("Multi-region only: re-send idempotent reads to the other region when the active one has not answered within this percentile of its recent latency, e.g. 95 (default=disabled)")
+            .hasArg().build();
+    private static Option WARM_POOL_OPTION = Option.builder()
+            .longOpt("warmPool")
+            .desc("Send a request over every pooled connection before starting the demo.")
+            .build();
+    private static Option REPORT_INTERVAL_OPTION = Option.builder()
+            .longOpt("reportInterval")
+            .argName("SECONDS")
+            .desc("Interval between throughput and latency reports, 0 to only report at the end (default=10)")
+            .hasArg().build();
+    private static Option METRICS_FILE_OPTION = Option.builder()
+            .longOpt("metricsFile")
+            .argName("PATH")
+            .desc("Write a CSV summary of per-operation latencies to this file at the end of the run.")
+            .hasArg().build();
+    private static Option HDR_LOG_FILE_OPTION = Option.builder()
+            .longOpt("hdrLogFile")
+            .argName("PATH")
+            .desc("Write interval latency histograms to this file in HdrHistogram log format.")
+            .hasArg().build();
+    private static Option STAND_IN_OPTION = Option.builder()
+            .longOpt("standIn")
+            .argName("BEHAVIOR")
+            .desc("LocalCluster only: start an in-process stand-in on 127.0.0.1:9042/9043/9045 instead of using a real cluster, optionally with per-node latency and faults, e.g. latency=2;node1:latency=5-50,timeout=0.01 (see StandInCluster#withBehavior)")
+            .hasArg().optionalArg(true).build();
+    private static Option BATCH_SIZE_OPTION = Option.builder()
+            .longOpt("batchSize")
+            .argName("STATEMENTS")
+            .desc("Group inserts by the replicas of their partition and write up to this many together, 1 to write each insert on its own (default=1). Needs a concurrency of at least the batch size to fill batches.")
+            .hasArg().build();
+    private static Option BATCH_LINGER_OPTION = Option.builder()
+            .longOpt("batchLinger")
+            .argName("MILLIS")
+            .desc("Write a batch that is not full after this long (default=5)")
+            .hasArg().build();
+    private static Option BATCH_MODE_OPTION = Option.builder()
+            .longOpt("batchMode")
+            .argName("unlogged|pipelined")
+            .desc("Write each batch as one unlogged batch, or as concurrent single-partition writes (default=unlogged)")
+            .hasArg().build();
+    private static Option READ_MODE_OPTION = Option.builder()
+            .longOpt("readMode")
+            .argName("in|fanout")
+            .desc("Read back the recent ids with one multi-partition IN query, or with concurrent token-aware single-partition queries (default=in)")
+            .hasArg().build();
+    private static Option READ_WINDOW_OPTION = Option.builder()
+            .longOpt("readWindow")
+            .argName("IDS")
+            .desc("How many of the most recently written ids each iteration reads back (default=10)")
+            .hasArg().build();
+    private static Option ROW_CACHE_OPTION = Option.builder()
+            .longOpt("rowCache")
+            .argName("MB")
+            .desc("Cache written rows on the client, up to this many MB, and read back only the ids it does not hold (default=disabled)")
+            .hasArg().build();
+    private static Option ROW_CACHE_TTL_OPTION = Option.builder()
+            .longOpt("rowCacheTtl")
+            .argName("SECONDS")
+            .desc("Expire cached rows this long after they were written (default=60)")
+            .hasArg().build();
+    private static Option API_OPTION = Option.builder()
+            .longOpt("api")
+            .argName("async|reactive|sync|virtual")
+            .desc("Run the demo as CompletionStage chains, as a Reactive Streams pipeline on executeReactive, or as blocking calls"
+                    + " on --concurrency platform threads or on virtual threads (Java 21) (default=async)")
+            .hasArg().build();
+    private static Option TABLE_OPTION = Option.builder()
+            .longOpt("table")
+            .argName("TABLE")
+            .desc("TableScan and BulkLoad only: table to scan or load (default=" + Operations.DEMO_TABLE + ")")
+            .hasArg().build();
+    private static Option PARTITION_KEY_OPTION = Option.builder()
+            .longOpt("partitionKey")
+            .argName("COLUMNS")
+            .desc("TableScan only: comma separated partition key columns of the table (default=read from the schema)")
+            .hasArg().build();
+    private static Option SPLITS_OPTION = Option.builder()
+            .longOpt("splits")
+            .argName("RANGES")
+            .desc("TableScan only: split the token ring into at least this many ranges, scanned --concurrency at a time (default=4 x concurrency)")
+            .hasArg().build();
+    private static Option OUTPUT_OPTION = Option.builder()
+            .longOpt("output")
+            .argName("PATH")
+            .desc("TableScan only: export the scanned rows to this file, one line of CQL literals per row (default=only count them)")
+            .hasArg().build();
+    private static Option RESUME_FILE_OPTION = Option.builder()
+            .longOpt("resumeFile")
+            .argName("PATH")
+            .desc("TableScan only: write the ranges that could not be scanned to this file, and only scan the ranges listed in it if it exists")
+            .hasArg().build();
+    private static Option INPUT_OPTION = Option.builder()
+            .longOpt("input")
+            .argName("PATH")
+            .desc("BulkLoad only: CSV or newline delimited JSON file to load")
+            .hasArg().build();
+    private static Option FORMAT_OPTION = Option.builder()
+            .longOpt("format")
+            .argName("csv|ndjson")
+            .desc("BulkLoad only: format of the input file (default=ndjson for .json, .jsonl and .ndjson files, csv otherwise)")
+            .hasArg().build();
+    private static Option THREADS_OPTION = Option.builder()
+            .longOpt("threads")
+            .argName("THREADS")
+            .desc("BulkLoad only: threads parsing the input file (default=available processors)")
+            .hasArg().build();
+    private static Option PROFILE_OPTION = Option.builder()
+            .longOpt("profile")
+            .argName("FILE.jfr")
+            .desc("Keep a continuous Java Flight Recording, with events for binds, request attempts, connects and failovers, and write it to this file on exit (Java 11+)")
+            .hasArg().build();
+    private static Option METRICS_PORT_OPTION = Option.builder()
+            .longOpt("metricsPort")
+            .argName("PORT")
+            .desc("Serve the driver metrics for Prometheus at http://127.0.0.1:PORT/metrics, they are always exported through JMX (default=disabled)")
+            .hasArg().build();
+    private static Option POOL_SIZE_OPTION = Option.builder()
+            .longOpt("poolSize")
+            .argName("MIN[-MAX]")
+            .desc("Connections per node; with a range, grow and shrink the pools with their utilization (default=astra.conf)")
+            .hasArg().build();
+    private static Option WORKLOAD_OPTION = Option.builder()
+            .longOpt("workload")
+            .argName("FILE.conf")
+            .desc("Run the tables, operation mix and key distributions of this HOCON file, or classpath resource e.g. workloads/hot-partitions.conf, instead of the demo (--api=async, sync or virtual)")
+            .hasArg().build();
     private static Options OPTIONS = new Options()
             .addOption(ASTRA_SECURE_CONNECT_BUNDLE_OPTION)
             .addOption(ASTRA_TOKEN_OPTION)
@@ -53,7 +205,37 @@ public class ConnectionOptions {
             .addOption(SECRET_OPTION)
             .addOption(KEYSPACE_OPTION)
             .addOption(FALLBACK_ASTRA_SECURE_CONNECT_BUNDLE_OPTION)
-            .addOption(ITERATIONS_OPTION);
+            .addOption(ITERATIONS_OPTION)
+            .addOption(CONCURRENCY_OPTION)
+            .addOption(RATE_OPTION)
+            .addOption(RETRY_BUDGET_OPTION)
+            .addOption(SLOW_REQUEST_OPTION)
+            .addOption(HEDGE_PERCENTILE_OPTION)
+            .addOption(WARM_POOL_OPTION)
+            .addOption(REPORT_INTERVAL_OPTION)
+            .addOption(METRICS_FILE_OPTION)
+            .addOption(HDR_LOG_FILE_OPTION)
+            .addOption(STAND_IN_OPTION)
+            .addOption(BATCH_SIZE_OPTION)
+            .addOption(BATCH_LINGER_OPTION)
+            .addOption(BATCH_MODE_OPTION)
+            .addOption(READ_MODE_OPTION)
+            .addOption(READ_WINDOW_OPTION)
+            .addOption(ROW_CACHE_OPTION)
+            .addOption(ROW_CACHE_TTL_OPTION)
+            .addOption(API_OPTION)
+            .addOption(TABLE_OPTION)
+            .addOption(PARTITION_KEY_OPTION)
+            .addOption(SPLITS_OPTION)
+            .addOption(OUTPUT_OPTION)
+            .addOption(RESUME_FILE_OPTION)
+            .addOption(INPUT_OPTION)
+            .addOption(FORMAT_OPTION)
+            .addOption(THREADS_OPTION)
+            .addOption(PROFILE_OPTION)
+            .addOption(METRICS_PORT_OPTION)
+            .addOption(POOL_SIZE_OPTION)
+            .addOption(WORKLOAD_OPTION);
 
     public static Optional<ConnectionOptions> fromArgs(final Class mainClass, final String[] args) {
         final CommandLine commandLine;
@@ -72,7 +254,37 @@ public class ConnectionOptions {
                 commandLine.getOptionValue(SECRET_OPTION),
                 commandLine.getOptionValue(KEYSPACE_OPTION),
                 commandLine.getOptionValue(FALLBACK_ASTRA_SECURE_CONNECT_BUNDLE_OPTION),
-                commandLine.getOptionValue(ITERATIONS_OPTION)));
+                commandLine.getOptionValue(ITERATIONS_OPTION))
+                .withConcurrency(commandLine.getOptionValue(CONCURRENCY_OPTION))
+                .withRate(commandLine.getOptionValue(RATE_OPTION))
+                .withRetryBudget(commandLine.getOptionValue(RETRY_BUDGET_OPTION))
+                .withSlowRequest(commandLine.getOptionValue(SLOW_REQUEST_OPTION))
+                .withHedgePercentile(commandLine.getOptionValue(HEDGE_PERCENTILE_OPTION))
+                .withWarmPool(commandLine.hasOption(WARM_POOL_OPTION.getLongOpt()))
+                .withReportInterval(commandLine.getOptionValue(REPORT_INTERVAL_OPTION))
+                .withMetricsFile(commandLine.getOptionValue(METRICS_FILE_OPTION))
+                .withHdrLogFile(commandLine.getOptionValue(HDR_LOG_FILE_OPTION))
+                .withStandIn(commandLine.hasOption(STAND_IN_OPTION.getLongOpt()) ? commandLine.getOptionValue(STAND_IN_OPTION, "") : null)
+                .withBatchSize(commandLine.getOptionValue(BATCH_SIZE_OPTION))
+                .withBatchLinger(commandLine.getOptionValue(BATCH_LINGER_OPTION))
+                .withBatchMode(commandLine.getOptionValue(BATCH_MODE_OPTION))
+                .withReadMode(commandLine.getOptionValue(READ_MODE_OPTION))
+                .withReadWindow(commandLine.getOptionValue(READ_WINDOW_OPTION))
+                .withRowCache(commandLine.getOptionValue(ROW_CACHE_OPTION))
+                .withRowCacheTtl(commandLine.getOptionValue(ROW_CACHE_TTL_OPTION))
+                .withApi(commandLine.getOptionValue(API_OPTION))
+                .withTable(commandLine.getOptionValue(TABLE_OPTION))
+                .withPartitionKey(commandLine.getOptionValue(PARTITION_KEY_OPTION))
+                .withSplits(commandLine.getOptionValue(SPLITS_OPTION))
+                .withOutput(commandLine.getOptionValue(OUTPUT_OPTION))
+                .withResumeFile(commandLine.getOptionValue(RESUME_FILE_OPTION))
+                .withInput(commandLine.getOptionValue(INPUT_OPTION))
+                .withFormat(commandLine.getOptionValue(FORMAT_OPTION))
+                .withThreads(commandLine.getOptionValue(THREADS_OPTION))
+                .withProfile(commandLine.getOptionValue(PROFILE_OPTION))
+                .withMetricsPort(commandLine.getOptionValue(METRICS_PORT_OPTION))
+                .withPoolSize(commandLine.getOptionValue(POOL_SIZE_OPTION))
+                .withWorkload(commandLine.getOptionValue(WORKLOAD_OPTION)));
     }
 
     private final String astraSecureConnectBundle;
@@ -82,6 +294,37 @@ public class ConnectionOptions {
     private final String keyspace;
     private final String fallbackAstraSecureConnectBundle;
     private final long iterations;
+    private int concurrency = 1;
+    private double rate;
+    private double retryBudgetPercent = 10.0;
+    private long slowRequest = 1000L;
+    private double hedgePercentile;
+    private boolean warmPool;
+    private long reportInterval = 10L;
+    private String metricsFile;
+    private String hdrLogFile;
+    private String standIn;
+    private int batchSize = 1;
+    private long batchLinger = 5L;
+    private WriteBatcher.Mode batchMode = WriteBatcher.Mode.UNLOGGED;
+    private MultiPartitionReader.Mode readMode = MultiPartitionReader.Mode.IN;
+    private int readWindow = 10;
+    private long rowCacheMegabytes;
+    private long rowCacheTtl = 60L;
+    private Operations.Api api = Operations.Api.ASYNC;
+    private String table = Operations.DEMO_TABLE;
+    private String partitionKey;
+    private int splits;
+    private String output;
+    private String resumeFile;
+    private String input;
+    private BulkLoader.Format format;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private String profile;
+    private int metricsPort;
+    private int minPoolSize;
+    private int maxPoolSize;
+    private String workload;
 
     public ConnectionOptions(final String astraSecureConnectBundle,
                              final String astraToken,
@@ -132,4 +375,321 @@ public class ConnectionOptions {
     public long getIterations() {
         return this.iterations;
     }
+
+    public ConnectionOptions withConcurrency(final String concurrency) {
+        if (concurrency != null && !concurrency.isEmpty()) {
+            this.concurrency = Integer.parseInt(concurrency);
+            if (this.concurrency < 1) {
+                throw new IllegalArgumentException("concurrency must be at least 1");
+            }
+        }
+        return this;
+    }
+    public int getConcurrency() {
+        return this.concurrency;
+    }
+
+    public ConnectionOptions withRate(final String rate) {
+        if (rate != null && !rate.isEmpty()) {
+            this.rate = Double.parseDouble(rate);
+        }
+        return this;
+    }
+    public boolean hasRate() {
+        return this.rate > 0;
+    }
+    public double getRate() {
+        return this.rate;
+    }
+
+    public ConnectionOptions withRetryBudget(final String retryBudgetPercent) {
+        if (retryBudgetPercent != null && !retryBudgetPercent.isEmpty()) {
+            this.retryBudgetPercent = Double.parseDouble(retryBudgetPercent);
+        }
+        return this;
+    }
+    public RetryBudget getRetryBudget() {
+        // allow a short burst of retries before the budget has built up
+        return new RetryBudget(this.retryBudgetPercent < 0 ? -1 : this.retryBudgetPercent / 100.0, Math.max(10, this.concurrency));
+    }
+
+    public ConnectionOptions withSlowRequest(final String slowRequest) {
+        if (slowRequest != null && !slowRequest.isEmpty()) {
+            this.slowRequest = Long.parseLong(slowRequest);
+        }
+        return this;
+    }
+    public long getSlowRequest() {
+        return this.slowRequest;
+    }
+
+    public ConnectionOptions withHedgePercentile(final String hedgePercentile) {
+        if (hedgePercentile != null && !hedgePercentile.isEmpty()) {
+            this.hedgePercentile = Double.parseDouble(hedgePercentile);
+            if (this.hedgePercentile >= 100) {
+                throw new IllegalArgumentException("hedgePercentile must be below 100");
+            }
+        }
+        return this;
+    }
+    public double getHedgePercentile() {
+        return this.hedgePercentile;
+    }
+
+    public ConnectionOptions withWarmPool(final boolean warmPool) {
+        this.warmPool = warmPool;
+        return this;
+    }
+    public boolean isWarmPool() {
+        return this.warmPool;
+    }
+
+    public ConnectionOptions withReportInterval(final String reportInterval) {
+        if (reportInterval != null && !reportInterval.isEmpty()) {
+            this.reportInterval = Long.parseLong(reportInterval);
+        }
+        return this;
+    }
+    public long getReportInterval() {
+        return this.reportInterval;
+    }
+
+    public ConnectionOptions withMetricsFile(final String metricsFile) {
+        this.metricsFile = metricsFile;
+        return this;
+    }
+    public String getMetricsFile() {
+        return this.metricsFile;
+    }
+
+    public ConnectionOptions withHdrLogFile(final String hdrLogFile) {
+        this.hdrLogFile = hdrLogFile;
+        return this;
+    }
+    public String getHdrLogFile() {
+        return this.hdrLogFile;
+    }
+
+    /**
+     * @param standIn stand-in node behavior, empty for well-behaved nodes, null to not start a stand-in
+     */
+    public ConnectionOptions withStandIn(final String standIn) {
+        this.standIn = standIn;
+        return this;
+    }
+    public boolean hasStandIn() {
+        return this.standIn != null;
+    }
+    public String getStandIn() {
+        return this.standIn;
+    }
+
+    public ConnectionOptions withBatchSize(final String batchSize) {
+        if (batchSize != null && !batchSize.isEmpty()) {
+            this.batchSize = Integer.parseInt(batchSize);
+            if (this.batchSize < 1) {
+                throw new IllegalArgumentException("batchSize must be at least 1");
+            }
+        }
+        return this;
+    }
+    public boolean isBatching() {
+        return this.batchSize > 1;
+    }
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    public ConnectionOptions withBatchLinger(final String batchLinger) {
+        if (batchLinger != null && !batchLinger.isEmpty()) {
+            this.batchLinger = Long.parseLong(batchLinger);
+        }
+        return this;
+    }
+    public long getBatchLinger() {
+        return this.batchLinger;
+    }
+
+    public ConnectionOptions withBatchMode(final String batchMode) {
+        if (batchMode != null && !batchMode.isEmpty()) {
+            this.batchMode = WriteBatcher.Mode.valueOf(batchMode.toUpperCase(Locale.ROOT));
+        }
+        return this;
+    }
+    public WriteBatcher.Mode getBatchMode() {
+        return this.batchMode;
+    }
+
+    public ConnectionOptions withReadMode(final String readMode) {
+        if (readMode != null && !readMode.isEmpty()) {
+            this.readMode = MultiPartitionReader.Mode.valueOf(readMode.toUpperCase(Locale.ROOT));
+        }
+        return this;
+    }
+    public MultiPartitionReader.Mode getReadMode() {
+        return this.readMode;
+    }
+
+    public ConnectionOptions withReadWindow(final String readWindow) {
+        if (readWindow != null && !readWindow.isEmpty()) {
+            this.readWindow = Integer.parseInt(readWindow);
+            if (this.readWindow < 1) {
+                throw new IllegalArgumentException("readWindow must be at least 1");
+            }
+        }
+        return this;
+    }
+    public int getReadWindow() {
+        return this.readWindow;
+    }
+
+    public ConnectionOptions withRowCache(final String rowCacheMegabytes) {
+        if (rowCacheMegabytes != null && !rowCacheMegabytes.isEmpty()) {
+            this.rowCacheMegabytes = Long.parseLong(rowCacheMegabytes);
+        }
+        return this;
+    }
+    public long getRowCacheBytes() {
+        return this.rowCacheMegabytes * 1024 * 1024;
+    }
+
+    public ConnectionOptions withRowCacheTtl(final String rowCacheTtl) {
+        if (rowCacheTtl != null && !rowCacheTtl.isEmpty()) {
+            this.rowCacheTtl = Long.parseLong(rowCacheTtl);
+        }
+        return this;
+    }
+    public long getRowCacheTtl() {
+        return TimeUnit.SECONDS.toMillis(this.rowCacheTtl);
+    }
+
+    public ConnectionOptions withApi(final String api) {
+        if (api != null && !api.isEmpty()) {
+            this.api = Operations.Api.valueOf(api.toUpperCase(Locale.ROOT));
+        }
+        return this;
+    }
+    public Operations.Api getApi() {
+        return this.api;
+    }
+
+    public ConnectionOptions withTable(final String table) {
+        if (table != null && !table.isEmpty()) {
+            this.table = table;
+        }
+        return this;
+    }
+    public String getTable() {
+        return this.table;
+    }
+
+    public ConnectionOptions withPartitionKey(final String partitionKey) {
+        this.partitionKey = partitionKey;
+        return this;
+    }
+    public String getPartitionKey() {
+        return this.partitionKey;
+    }
+
+    public ConnectionOptions withSplits(final String splits) {
+        if (splits != null && !splits.isEmpty()) {
+            this.splits = Integer.parseInt(splits);
+        }
+        return this;
+    }
+    public int getSplits() {
+        return this.splits > 0 ? this.splits : 4 * this.concurrency;
+    }
+
+    public ConnectionOptions withOutput(final String output) {
+        this.output = output;
+        return this;
+    }
+    public String getOutput() {
+        return this.output;
+    }
+
+    public ConnectionOptions withResumeFile(final String resumeFile) {
+        this.resumeFile = resumeFile;
+        return this;
+    }
+    public String getResumeFile() {
+        return this.resumeFile;
+    }
+
+    public ConnectionOptions withInput(final String input) {
+        this.input = input;
+        return this;
+    }
+    public String getInput() {
+        return this.input;
+    }
+
+    public ConnectionOptions withFormat(final String format) {
+        if (format != null && !format.isEmpty()) {
+            this.format = BulkLoader.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        }
+        return this;
+    }
+    public BulkLoader.Format getFormat() {
+        return this.format != null || this.input == null ? this.format : BulkLoader.Format.of(this.input);
+    }
+
+    public ConnectionOptions withThreads(final String threads) {
+        if (threads != null && !threads.isEmpty()) {
+            this.threads = Math.max(1, Integer.parseInt(threads));
+        }
+        return this;
+    }
+    public int getThreads() {
+        return this.threads;
+    }
+
+    public ConnectionOptions withProfile(final String profile) {
+        if (profile != null && !profile.isEmpty()) {
+            this.profile = profile;
+        }
+        return this;
+    }
+    public String getProfile() {
+        return this.profile;
+    }
+
+    public ConnectionOptions withMetricsPort(final String metricsPort) {
+        if (metricsPort != null && !metricsPort.isEmpty()) {
+            this.metricsPort = Integer.parseInt(metricsPort);
+        }
+        return this;
+    }
+    public int getMetricsPort() {
+        return this.metricsPort;
+    }
+
+    public ConnectionOptions withPoolSize(final String poolSize) {
+        if (poolSize != null && !poolSize.isEmpty()) {
+            int dash = poolSize.indexOf('-');
+            this.minPoolSize = Math.max(1, Integer.parseInt(dash < 0 ? poolSize : poolSize.substring(0, dash)));
+            this.maxPoolSize = Math.max(this.minPoolSize, dash < 0 ? this.minPoolSize : Integer.parseInt(poolSize.substring(dash + 1)));
+        }
+        return this;
+    }
+    /**
+     * @return 0 to keep the pool size of the configuration
+     */
+    public int getMinPoolSize() {
+        return this.minPoolSize;
+    }
+    public int getMaxPoolSize() {
+        return this.maxPoolSize;
+    }
+
+    public ConnectionOptions withWorkload(final String workload) {
+        if (workload != null && !workload.isEmpty()) {
+            this.workload = workload;
+        }
+        return this;
+    }
+    public String getWorkload() {
+        return this.workload;
+    }
 }
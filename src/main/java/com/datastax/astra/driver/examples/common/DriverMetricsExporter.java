@@ -0,0 +1,203 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.jmx.JmxReporter;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.metrics.Metrics;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+
+/**
+ * Exports the driver metrics of sessions (enabled in {@code astra.conf}) as MBeans and, once a port is given, in the
+ * Prometheus text format at {@code http://127.0.0.1:PORT/metrics}. Both stop exporting a session once it is closed.
+ * <p>
+ * The driver names metrics {@code <session>.<metric>} and {@code <session>.nodes.<node>.<metric>}, they are exported
+ * as {@code cassandra_session_<metric>} and {@code cassandra_node_<metric>} with the session and node as labels.
+ * Timers are summaries in seconds.
+ */
+public final class DriverMetricsExporter {
+    private static final Logger LOG = LoggerFactory.getLogger(DriverMetricsExporter.class);
+
+    private static final String JMX_DOMAIN = "com.datastax.astra.driver.examples";
+    private static final double[] QUANTILES = {0.5, 0.75, 0.95, 0.99, 0.999};
+
+    // registries of the sessions being exported, by session name
+    private static final Map<String, MetricRegistry> REGISTRIES = new ConcurrentHashMap<>();
+    private static HttpServer server;
+
+    private DriverMetricsExporter() {
+    }
+
+    /**
+     * Export the metrics of {@code session} until it is closed, and start the scrape endpoint if the options ask for
+     * one and it is not running yet.
+     */
+    public static synchronized void export(CqlSession session, ConnectionOptions options) {
+        export(session, options.getMetricsPort());
+    }
+
+    /**
+     * @param port where to serve the Prometheus endpoint, 0 for JMX only
+     */
+    public static synchronized void export(CqlSession session, int port) {
+        Metrics metrics = session.getMetrics().orElse(null);
+        if (metrics == null) {
+            LOG.warn("Metrics are disabled for session {}, nothing to export", session.getName());
+            return;
+        }
+        String name = session.getName();
+        MetricRegistry registry = metrics.getRegistry();
+        JmxReporter jmx = JmxReporter.forRegistry(registry).inDomain(JMX_DOMAIN).build();
+        jmx.start();
+        REGISTRIES.put(name, registry);
+        session.closeFuture().thenRun(() -> unexport(name, registry, jmx));
+
+        if (port > 0 && server == null) {
+            server = startServer(port);
+        }
+    }
+
+    private static synchronized void unexport(String name, MetricRegistry registry, JmxReporter jmx) {
+        jmx.stop();
+        REGISTRIES.remove(name, registry);
+        if (REGISTRIES.isEmpty() && server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private static HttpServer startServer(int port) {
+        try {
+            HttpServer http = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            http.createContext("/metrics", exchange -> {
+                byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            http.setExecutor(Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "metrics-http");
+                t.setDaemon(true);
+                return t;
+            }));
+            http.start();
+            LOG.info("Serving driver metrics at http://{}:{}/metrics", http.getAddress().getHostString(), http.getAddress().getPort());
+            return http;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("cannot serve metrics on port " + port, e);
+        }
+    }
+
+    /**
+     * The metrics of every exported session in the Prometheus text format.
+     */
+    public static String scrape() {
+        return scrape(REGISTRIES);
+    }
+
+    /**
+     * @param registries driver metric registries by session name
+     */
+    static String scrape(Map<String, MetricRegistry> registries) {
+        Map<String, Family> families = new TreeMap<>();
+        for (Map.Entry<String, MetricRegistry> registry : registries.entrySet()) {
+            for (Map.Entry<String, Metric> metric : registry.getValue().getMetrics().entrySet()) {
+                collect(families, registry.getKey(), metric.getKey(), metric.getValue());
+            }
+        }
+        StringBuilder out = new StringBuilder();
+        for (Map.Entry<String, Family> family : families.entrySet()) {
+            out.append("# TYPE ").append(family.getKey()).append(' ').append(family.getValue().type).append('\n');
+            for (String sample : family.getValue().samples) {
+                out.append(sample).append('\n');
+            }
+        }
+        return out.toString();
+    }
+
+    private static final class Family {
+        final String type;
+        final List<String> samples = new ArrayList<>();
+
+        Family(String type) {
+            this.type = type;
+        }
+    }
+
+    private static void collect(Map<String, Family> families, String session, String driverName, Metric metric) {
+        // <prefix.>s0.cql-requests or <prefix.>s0.nodes.127_0_0_1:9042.pool.in-flight
+        int start = driverName.indexOf(session + ".");
+        if (start < 0) {
+            return;
+        }
+        String name = driverName.substring(start + session.length() + 1);
+        String labels = "session=\"" + escape(session) + "\"";
+        String scope = "session";
+        if (name.startsWith("nodes.") && name.indexOf('.', 6) > 0) {
+            int end = name.indexOf('.', 6);
+            labels += ",node=\"" + escape(name.substring(6, end)) + "\"";
+            scope = "node";
+            name = name.substring(end + 1);
+        }
+        String family = "cassandra_" + scope + "_" + name.replaceAll("[^a-zA-Z0-9_]", "_");
+
+        if (metric instanceof Gauge) {
+            Object value = ((Gauge<?>) metric).getValue();
+            if (value instanceof Number) {
+                sample(families, family, "gauge", family, labels, ((Number) value).doubleValue());
+            }
+        } else if (metric instanceof Counter) {
+            sample(families, family, "gauge", family, labels, ((Counter) metric).getCount());
+        } else if (metric instanceof Meter) {
+            sample(families, family + "_total", "counter", family + "_total", labels, ((Meter) metric).getCount());
+        } else if (metric instanceof Timer) {
+            // the driver's timers count nanoseconds
+            summary(families, family + "_seconds", labels, ((Timer) metric).getSnapshot(), ((Timer) metric).getCount(), 1e9);
+        } else if (metric instanceof Histogram) {
+            summary(families, family, labels, ((Histogram) metric).getSnapshot(), ((Histogram) metric).getCount(), 1);
+        }
+    }
+
+    private static void summary(Map<String, Family> families, String family, String labels, Snapshot snapshot, long count, double divisor) {
+        for (double quantile : QUANTILES) {
+            sample(families, family, "summary", family, labels + ",quantile=\"" + quantile + "\"", snapshot.getValue(quantile) / divisor);
+        }
+        sample(families, family, "summary", family + "_count", labels, count);
+    }
+
+    private static void sample(Map<String, Family> families, String family, String type, String name, String labels, double value) {
+        families.computeIfAbsent(family, f -> new Family(type)).samples
+                .add(String.format(Locale.ROOT, "%s{%s} %s", name, labels, format(value)));
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? Long.toString((long) value) : Double.toString(value);
+    }
+
+    private static String escape(String label) {
+        return label.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,58 @@
+package com.datastax.astra.driver.examples.common;
+
+/**
+ * Java Flight Recorder events for the stages of a request: binding, each attempt sent to the cluster, connecting
+ * sessions and switching regions. This is the Java 8 version, which records nothing: built on Java 11 or later, the
+ * {@code jdk11} profile makes the jar multi-release and its {@code src/main/java11} version of this class replaces
+ * this one on Java 11 and later. Both versions must keep the same public methods.
+ */
+public final class FlightRecorder {
+
+    /**
+     * A stage that has started, finished once it completes. Stages of requests that are not recorded share a no-op.
+     */
+    public interface Span {
+        Span NONE = failure -> {
+        };
+
+        /**
+         * @param failure why the stage failed, null if it succeeded
+         */
+        void finish(Throwable failure);
+    }
+
+    private FlightRecorder() {
+    }
+
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Start a continuous recording with the JDK's low overhead settings plus the events of this class, written to
+     * {@code file} when the JVM exits. Does nothing if {@code file} is null.
+     */
+    public static void start(String file) {
+        if (file != null) {
+            throw new UnsupportedOperationException("Flight recordings need Java 11 and running from the jar built with it by the jdk11 profile");
+        }
+    }
+
+    public static Span beginBind(String statement) {
+        return Span.NONE;
+    }
+
+    /**
+     * @param description the statement, or whatever else identifies the request
+     */
+    public static Span beginAttempt(OperationType type, int attempt, Object description) {
+        return Span.NONE;
+    }
+
+    public static Span beginConnect(String target) {
+        return Span.NONE;
+    }
+
+    public static void failover(String from, String to, String reason) {
+    }
+}
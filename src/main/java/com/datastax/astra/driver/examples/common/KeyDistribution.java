@@ -0,0 +1,215 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.typesafe.config.Config;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Picks the key of each request of a workload profile, as a number between 0 and the number of keys.
+ * <p>
+ * Distributions are shared by every worker: drawing a key is thread-safe and allocates nothing, random draws come
+ * from {@link ThreadLocalRandom} and the sequential distribution from a single counter.
+ */
+public interface KeyDistribution {
+
+    /**
+     * @return a key between 0 (inclusive) and {@link #getCount()} (exclusive)
+     */
+    long next();
+
+    long getCount();
+
+    /**
+     * Parse a {@code keys} block of a workload profile, e.g. {@code { distribution = zipfian, count = 1000000 }}.
+     */
+    static KeyDistribution fromConfig(Config keys) {
+        String distribution = keys.hasPath("distribution") ? keys.getString("distribution") : "uniform";
+        long count = keys.getLong("count");
+        switch (distribution.toLowerCase(Locale.ROOT)) {
+            case "uniform":
+                return new Uniform(count);
+            case "sequential":
+                return new Sequential(count);
+            case "zipfian":
+                return new Zipfian(count, keys.hasPath("exponent") ? keys.getDouble("exponent") : Zipfian.DEFAULT_EXPONENT);
+            case "hot-set":
+                return new HotSet(count,
+                        keys.hasPath("hot-fraction") ? keys.getDouble("hot-fraction") : HotSet.DEFAULT_HOT_FRACTION,
+                        keys.hasPath("hot-share") ? keys.getDouble("hot-share") : HotSet.DEFAULT_HOT_SHARE);
+            default:
+                throw new IllegalArgumentException("Unknown key distribution '" + distribution + "', expected uniform, sequential, zipfian or hot-set");
+        }
+    }
+
+    /**
+     * Every key equally likely.
+     */
+    final class Uniform implements KeyDistribution {
+        private final long count;
+
+        public Uniform(long count) {
+            this.count = checkCount(count);
+        }
+
+        @Override
+        public long next() {
+            return ThreadLocalRandom.current().nextLong(count);
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "uniform over " + count;
+        }
+    }
+
+    /**
+     * Keys 0, 1, 2... in turn across all workers, starting over after the last one.
+     */
+    final class Sequential implements KeyDistribution {
+        private final long count;
+        private final AtomicLong next = new AtomicLong();
+
+        public Sequential(long count) {
+            this.count = checkCount(count);
+        }
+
+        @Override
+        public long next() {
+            return Math.floorMod(next.getAndIncrement(), count);
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "sequential over " + count;
+        }
+    }
+
+    /**
+     * Key {@code k} is drawn with a probability proportional to {@code 1 / (k + 1)^exponent}, so key 0 is the
+     * hottest. Uses the constant-time method of Gray et al., "Quickly Generating Billion-Record Synthetic Databases"
+     * (also used by YCSB), which needs an exponent below 1.
+     */
+    final class Zipfian implements KeyDistribution {
+        static final double DEFAULT_EXPONENT = 0.99;
+        // zeta is summed exactly up to here and approximated by an integral beyond
+        private static final long EXACT_ZETA_TERMS = 10_000_000L;
+
+        private final long count;
+        private final double exponent;
+        private final double zetaN;
+        private final double alpha;
+        private final double eta;
+        private final double secondThreshold;
+
+        public Zipfian(long count, double exponent) {
+            if (exponent <= 0 || exponent >= 1) {
+                throw new IllegalArgumentException("zipfian exponent must be between 0 and 1 (exclusive), got " + exponent);
+            }
+            this.count = checkCount(count);
+            this.exponent = exponent;
+            this.zetaN = zeta(count, exponent);
+            this.alpha = 1.0 / (1.0 - exponent);
+            this.eta = (1 - Math.pow(2.0 / count, 1 - exponent)) / (1 - zeta(2, exponent) / zetaN);
+            this.secondThreshold = 1 + Math.pow(0.5, exponent);
+        }
+
+        static double zeta(long n, double exponent) {
+            long exact = Math.min(n, EXACT_ZETA_TERMS);
+            double sum = 0;
+            for (long i = 1; i <= exact; i++) {
+                sum += 1 / Math.pow(i, exponent);
+            }
+            if (n > exact) {
+                sum += (Math.pow(n, 1 - exponent) - Math.pow(exact, 1 - exponent)) / (1 - exponent);
+            }
+            return sum;
+        }
+
+        @Override
+        public long next() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            double uz = u * zetaN;
+            if (uz < 1) {
+                return 0;
+            }
+            if (uz < secondThreshold) {
+                return Math.min(1, count - 1);
+            }
+            return Math.min(count - 1, (long) (count * Math.pow(eta * u - eta + 1, alpha)));
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "zipfian over " + count + ", exponent " + exponent;
+        }
+    }
+
+    /**
+     * A share of the requests goes to a small set of hot keys, the rest to the other keys, each uniformly. Hot keys
+     * are the lowest numbers.
+     */
+    final class HotSet implements KeyDistribution {
+        static final double DEFAULT_HOT_FRACTION = 0.01;
+        static final double DEFAULT_HOT_SHARE = 0.9;
+
+        private final long count;
+        private final long hotCount;
+        private final double hotShare;
+
+        /**
+         * @param hotFraction fraction of the keys that are hot
+         * @param hotShare    fraction of the requests sent to hot keys
+         */
+        public HotSet(long count, double hotFraction, double hotShare) {
+            if (hotFraction <= 0 || hotFraction > 1 || hotShare < 0 || hotShare > 1) {
+                throw new IllegalArgumentException("hot-fraction must be in (0, 1] and hot-share in [0, 1]");
+            }
+            this.count = checkCount(count);
+            this.hotCount = Math.max(1, Math.min(count, Math.round(count * hotFraction)));
+            this.hotShare = hotShare;
+        }
+
+        @Override
+        public long next() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            if (hotCount == count || random.nextDouble() < hotShare) {
+                return random.nextLong(hotCount);
+            }
+            return hotCount + random.nextLong(count - hotCount);
+        }
+
+        @Override
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "hot-set over %d, %.0f%% of requests to %d keys", count, hotShare * 100, hotCount);
+        }
+    }
+
+    static long checkCount(long count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("key count must be at least 1");
+        }
+        return count;
+    }
+}
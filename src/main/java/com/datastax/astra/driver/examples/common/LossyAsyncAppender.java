@@ -0,0 +1,161 @@
+package com.datastax.astra.driver.examples.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands log events to a writer thread through a bounded queue, so request threads never wait on the file or console
+ * behind it. Unlike logback's {@code AsyncAppender} it never blocks and it counts what it loses. Events below WARN
+ * are discarded once fewer than {@code discardingThreshold} slots are free (a fifth of the queue by default). Any
+ * event is dropped when the queue is full. {@link WorkloadMetrics} reports both counts.
+ * <p>
+ * Caller data is not captured, so patterns should use {@code %logger} rather than {@code %class}.
+ */
+public class LossyAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    // shared by every instance, there is usually one
+    private static final LongAdder DISCARDED = new LongAdder();
+    private static final LongAdder DROPPED = new LongAdder();
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private int queueSize = 8192;
+    private int discardingThreshold = -1;
+    private BlockingQueue<ILoggingEvent> queue;
+    private Thread writer;
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    /**
+     * Events below WARN thrown away because the queue was nearly full, since the start of the JVM.
+     */
+    public static long getDiscarded() {
+        return DISCARDED.sum();
+    }
+
+    /**
+     * Events thrown away because the queue was full, since the start of the JVM.
+     */
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (queueSize < 1) {
+            addError("Invalid queue size " + queueSize);
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addWarn("No appender attached to " + getName());
+        }
+        if (discardingThreshold < 0) {
+            discardingThreshold = queueSize / 5;
+        }
+        queue = new ArrayBlockingQueue<>(queueSize);
+        super.start();
+        writer = new Thread(this::write, "log-writer-" + getName());
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (queue.remainingCapacity() < discardingThreshold && event.getLevel().toInt() < Level.WARN_INT) {
+            DISCARDED.increment();
+            return;
+        }
+        // the message and MDC are captured now, arguments may change before the writer gets to them
+        event.prepareForDeferredProcessing();
+        if (!queue.offer(event)) {
+            DROPPED.increment();
+        }
+    }
+
+    private void write() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                appenders.appendLoopOnAppenders(queue.take());
+            }
+        } catch (InterruptedException e) {
+            // stopping, whatever is left is flushed by stop
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        writer.interrupt();
+        try {
+            writer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<ILoggingEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (ILoggingEvent event : remaining) {
+            appenders.appendLoopOnAppenders(event);
+        }
+        if (getDiscarded() + getDropped() > 0) {
+            addInfo(getName() + " discarded " + getDiscarded() + " and dropped " + getDropped() + " events");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
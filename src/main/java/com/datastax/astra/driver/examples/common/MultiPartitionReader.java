@@ -0,0 +1,124 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.dse.driver.api.core.cql.reactive.ReactiveRow;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.Row;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reads the demo rows of several partitions, either with one multi-partition {@code IN} query or with one
+ * single-partition query per id sent concurrently.
+ * <p>
+ * An {@code IN} query makes its coordinator wait on the replicas of every partition before it can answer, so the
+ * slowest replica sets the latency and the coordinator does most of the work. Single-partition reads carry their
+ * routing key and are sent by the token-aware load balancing policy straight to a replica of their partition, which
+ * spreads coordination over the cluster, and their rows are handed over as each one arrives.
+ * <p>
+ * Either way the whole read is recorded as {@link OperationType#SELECT}. When fanning out each single-partition read
+ * is also recorded as {@link OperationType#FANOUT_READ}.
+ */
+public class MultiPartitionReader {
+
+    public enum Mode {
+        // SELECT ... WHERE id IN ?
+        IN,
+        // concurrent SELECT ... WHERE id = ?
+        FANOUT
+    }
+
+    private final CqlSession session;
+    private final RetryExecutor retry;
+    private final WorkloadMetrics metrics;
+    private final Mode mode;
+
+    /**
+     * @param metrics where whole fan-out reads are recorded, may be null
+     */
+    public MultiPartitionReader(CqlSession session, RetryExecutor retry, WorkloadMetrics metrics, Mode mode) {
+        this.session = session;
+        this.retry = retry;
+        this.metrics = metrics;
+        this.mode = mode;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Read the rows of {@code ids} with the {@link Operations#SELECT_BY_IDS} or {@link Operations#SELECT_BY_ID}
+     * statement of {@code statements}.
+     *
+     * @param onRow      called with each row, from several threads at once when fanning out
+     * @param startNanos when the read started, for its recorded latency
+     * @return completes once all rows were handed over, or as soon as one partition could not be read
+     */
+    public CompletionStage<Void> read(PreparedStatementRegistry statements, List<UUID> ids, Consumer<Row> onRow, long startNanos) {
+        if (mode == Mode.IN || ids.isEmpty()) {
+            return statements.bind(session, Operations.SELECT_BY_IDS, ids)
+                    .thenCompose(read -> Operations.runWithRetriesAsync(retry, session, read, OperationType.SELECT, startNanos))
+                    .thenAccept(rs -> rs.currentPage().forEach(onRow));
+        }
+
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(ids.size());
+        for (UUID id : ids) {
+            long partitionStart = System.nanoTime();
+            statements.bind(session, Operations.SELECT_BY_ID, id)
+                    .thenCompose(read -> Operations.runWithRetriesAsync(retry, session, read, OperationType.FANOUT_READ, partitionStart))
+                    .whenComplete((rs, t) -> {
+                        if (t != null) {
+                            // the first failure fails the read, later ones are already counted per partition
+                            if (result.completeExceptionally(t) && metrics != null) {
+                                metrics.get(OperationType.SELECT).recordError();
+                            }
+                            return;
+                        }
+                        if (result.isDone()) {
+                            return;
+                        }
+                        rs.currentPage().forEach(onRow);
+                        if (remaining.decrementAndGet() == 0) {
+                            if (metrics != null) {
+                                metrics.get(OperationType.SELECT).recordSince(startNanos);
+                            }
+                            result.complete(null);
+                        }
+                    });
+        }
+        return result;
+    }
+
+    /**
+     * Reactive equivalent of {@link #read}: nothing is sent until subscribed, and when fanning out every
+     * single-partition read is sent at once. Rows are emitted as they arrive.
+     *
+     * @param startNanos when the read started, for its recorded latency
+     */
+    public Flux<ReactiveRow> readReactive(PreparedStatementRegistry statements, List<UUID> ids, long startNanos) {
+        if (mode == Mode.IN || ids.isEmpty()) {
+            return Mono.fromCompletionStage(() -> statements.bind(session, Operations.SELECT_BY_IDS, ids))
+                    .flatMapMany(read -> Operations.runWithRetriesReactive(retry, session, read, OperationType.SELECT, startNanos));
+        }
+        Flux<ReactiveRow> rows = Flux.fromIterable(ids)
+                .flatMap(id -> {
+                    long partitionStart = System.nanoTime();
+                    return Mono.fromCompletionStage(statements.bind(session, Operations.SELECT_BY_ID, id))
+                            .flatMapMany(read -> Operations.runWithRetriesReactive(retry, session, read, OperationType.FANOUT_READ, partitionStart));
+                }, ids.size());
+        if (metrics == null) {
+            return rows;
+        }
+        // the first failure cancels the other reads, which are then not counted
+        return rows.doOnComplete(() -> metrics.get(OperationType.SELECT).recordSince(startNanos))
+                .doOnError(t -> metrics.get(OperationType.SELECT).recordError());
+    }
+}
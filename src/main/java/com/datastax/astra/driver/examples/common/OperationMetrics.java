@@ -0,0 +1,115 @@
+package com.datastax.astra.driver.examples.common;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and error/retry counters for one {@link OperationType}.
+ * Recording is wait-free so it can be called from driver I/O threads; interval snapshots are taken by the reporter.
+ */
+public class OperationMetrics {
+
+    private final OperationType type;
+    // latencies are recorded in microseconds, the histogram resizes itself to fit the largest value seen
+    private final Recorder recorder = new Recorder(3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+
+    // only touched by the reporting thread
+    private final Histogram total = new Histogram(3);
+    private long reportedErrors;
+    private long reportedRetries;
+
+    OperationMetrics(OperationType type) {
+        this.type = type;
+    }
+
+    public OperationType getType() {
+        return type;
+    }
+
+    public void recordLatency(long nanos) {
+        recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    public void recordSince(long startNanos) {
+        recordLatency(System.nanoTime() - startNanos);
+    }
+
+    public void recordError() {
+        errors.increment();
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * Swap out the histogram recorded since the previous call and fold it into the running total.
+     */
+    synchronized Snapshot snapshotInterval() {
+        Histogram interval = recorder.getIntervalHistogram();
+        total.add(interval);
+        long e = errors.sum();
+        long r = retries.sum();
+        Snapshot snapshot = new Snapshot(interval, e - reportedErrors, r - reportedRetries);
+        reportedErrors = e;
+        reportedRetries = r;
+        return snapshot;
+    }
+
+    synchronized Snapshot snapshotTotal() {
+        return new Snapshot(total.copy(), reportedErrors, reportedRetries);
+    }
+
+    /**
+     * Immutable view of a histogram with the error and retry counts over the same period.
+     */
+    public static class Snapshot {
+        final Histogram histogram;
+        final long errors;
+        final long retries;
+
+        Snapshot(Histogram histogram, long errors, long retries) {
+            this.histogram = histogram;
+            this.errors = errors;
+            this.retries = retries;
+        }
+
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public long getCount() {
+            return histogram.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public long getRetries() {
+            return retries;
+        }
+
+        // percentile in milliseconds
+        public double getPercentile(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1000.0;
+        }
+
+        public double getMax() {
+            return histogram.getMaxValue() / 1000.0;
+        }
+    }
+}
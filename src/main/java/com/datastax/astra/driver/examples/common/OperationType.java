@@ -0,0 +1,28 @@
+package com.datastax.astra.driver.examples.common;
+
+/**
+ * Kinds of request issued by the workloads, each has its own latency histogram and counters.
+ */
+public enum OperationType {
+    CREATE_TABLE,
+    INSERT,
+    SELECT,
+    // pages of token range scans
+    SCAN_PAGE,
+    // requests sent by the WriteBatcher: one per unlogged batch, or one per statement when pipelined
+    BATCH,
+    // single-partition reads sent by the MultiPartitionReader when fanning out, one per id
+    FANOUT_READ,
+    // latency of individual attempts that failed and were retried
+    RETRY,
+    // backoff delay waited before each retry
+    RETRY_BACKOFF;
+
+    /**
+     * Whether each recorded value is a completed request, as opposed to an attempt, delay or group of requests
+     * already counted on their own.
+     */
+    public boolean isRequest() {
+        return this != RETRY && this != RETRY_BACKOFF && this != BATCH && this != FANOUT_READ;
+    }
+}
@@ -1,145 +1,357 @@
 package com.datastax.astra.driver.examples.common;
 
+import com.datastax.dse.driver.api.core.cql.reactive.ReactiveRow;
 import com.datastax.oss.driver.api.core.AllNodesFailedException;
 import com.datastax.oss.driver.api.core.CqlSession;
 import com.datastax.oss.driver.api.core.CqlSessionBuilder;
-import com.datastax.oss.driver.api.core.DriverTimeoutException;
 import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
-import com.datastax.oss.driver.api.core.connection.ClosedConnectionException;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
 import com.datastax.oss.driver.api.core.cql.BoundStatement;
-import com.datastax.oss.driver.api.core.cql.PreparedStatement;
 import com.datastax.oss.driver.api.core.cql.ResultSet;
+import com.datastax.oss.driver.api.core.cql.Row;
 import com.datastax.oss.driver.api.core.cql.SimpleStatement;
 import com.datastax.oss.driver.api.core.cql.Statement;
-import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
-import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
-import com.datastax.oss.driver.internal.core.cql.DefaultPrepareRequest;
 import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.nio.file.Paths;
 import java.time.Instant;
-import java.util.LinkedList;
-import java.util.Random;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
+import java.util.function.Consumer;
 
 public class Operations {
+    public static final String DEMO_TABLE = "demo_singleton";
+
+    /**
+     * How the demo issues its requests.
+     */
+    public enum Api {
+        // CompletionStage chains, see AsyncWorkloadRunner
+        ASYNC,
+        // Reactive Streams publishers, see ReactiveWorkloadRunner
+        REACTIVE,
+        // blocking calls on platform threads, see BlockingWorkloadRunner
+        SYNC,
+        // blocking calls on virtual threads, Java 21 only
+        VIRTUAL
+    }
+
     private static final boolean USE_NEW_TABLE = false;
     private static final Logger LOG = LoggerFactory.getLogger(Operations.class);
+    private static final RetryExecutor UNLIMITED_RETRIES = new RetryExecutor(RetryBudget.unlimited(), null);
+    // distinct payloads cycled through by the demo, and how many recent ids each read fetches by default
+    private static final int PAYLOADS = 1024;
+    private static final int READ_WINDOW = 10;
 
-    private static Statement buildCreateTableCql(String tableName) {
+    public static Statement buildCreateTableCql(String tableName) {
         // Idempotent create table
         return SimpleStatement.newInstance(String.format("CREATE TABLE IF NOT EXISTS %s (id uuid PRIMARY KEY, created_at timestamp, string text, number int)", tableName));
     }
 
+    public static final String INSERT = "insert";
+    public static final String SELECT_BY_IDS = "select-by-ids";
+    public static final String SELECT_BY_ID = "select-by-id";
+
+    public static PreparedStatementRegistry buildDemoStatements(String tableName) {
+        // both statements are safe to replay, marking them idempotent also lets the driver run speculative executions
+        return new PreparedStatementRegistry(tableName)
+                .register(INSERT, "INSERT INTO %s (id, created_at, string, number) VALUES (?, ?, ?, ?)", true)
+                .register(SELECT_BY_IDS, "SELECT created_at, string, number FROM %s WHERE id IN ?", true)
+                .register(SELECT_BY_ID, "SELECT created_at, string, number FROM %s WHERE id = ?", true);
+    }
+
+    /**
+     * Statements for {@link #DEMO_TABLE}, shared by every session so each prepares them once. Register it as a schema
+     * change listener on session builders to have them prepared again if the table changes.
+     */
+    public static final PreparedStatementRegistry DEMO_STATEMENTS = buildDemoStatements(DEMO_TABLE);
+
     private static Statement buildDropTableCql(String tableName) {
         // Idempotent drop table
         return SimpleStatement.newInstance(String.format("DROP TABLE IF EXISTS %s", tableName));
     }
 
-    private static class Entry {
-        final UUID id;
-        final String string;
-        final int number;
+    public static void runDemo(CqlSession session, long iterations) {
+        runDemo(session, new ConnectionOptions(null, null, null, null, null, null, String.valueOf(iterations)));
+    }
 
-        public Entry(String string, int number) {
-            this.id = UUID.randomUUID();
-            this.string = string;
-            this.number = number;
+    public static void runDemo(CqlSession session, ConnectionOptions options) {
+        if (options.getWorkload() != null) {
+            runWorkload(session, options, WorkloadProfile.load(options.getWorkload()));
+            return;
+        }
+        try (WorkloadMetrics metrics = WorkloadMetrics.fromOptions(options);
+             RetryExecutor retry = RetryExecutor.fromOptions(options, metrics);
+             WriteBatcher batcher = options.isBatching() ? WriteBatcher.fromOptions(session, retry, metrics, options) : null) {
+            MultiPartitionReader reader = new MultiPartitionReader(session, retry, metrics, options.getReadMode());
+            RowCache cache = RowCache.fromOptions(options);
+            metrics.setRowCache(cache);
+            if (options.getApi() == Api.REACTIVE) {
+                runDemo(session, options.getIterations(), new ReactiveWorkloadRunner(options.getConcurrency(), options.getRate(), metrics), retry, batcher,
+                        reader, options.getReadWindow(), cache);
+            } else if (options.getApi() == Api.SYNC || options.getApi() == Api.VIRTUAL) {
+                runDemo(session, options.getIterations(), new BlockingWorkloadRunner(options.getConcurrency(), options.getRate(), metrics,
+                        options.getApi() == Api.VIRTUAL), retry, batcher, reader, options.getReadWindow(), cache);
+            } else {
+                runDemo(session, options.getIterations(), new AsyncWorkloadRunner(options.getConcurrency(), options.getRate(), metrics), retry, batcher,
+                        reader, options.getReadWindow(), cache);
+            }
         }
+    }
 
-        @Override
-        public String toString() {
-            return "Entry{" +
-                    "id=" + id +
-                    ", string='" + string + '\'' +
-                    ", number=" + number +
-                    '}';
+    /**
+     * Run a workload profile instead of the demo, with the options' iterations, concurrency, rate and retries.
+     */
+    public static void runWorkload(CqlSession session, ConnectionOptions options, WorkloadProfile profile) {
+        if (options.getApi() == Api.REACTIVE) {
+            throw new IllegalArgumentException("Workload profiles run with --api=async, sync or virtual");
+        }
+        try (WorkloadMetrics metrics = WorkloadMetrics.fromOptions(options);
+             RetryExecutor retry = RetryExecutor.fromOptions(options, metrics)) {
+            if (options.getApi() == Api.ASYNC) {
+                profile.run(session, options.getIterations(), new AsyncWorkloadRunner(options.getConcurrency(), options.getRate(), metrics), retry);
+            } else {
+                profile.run(session, options.getIterations(), new BlockingWorkloadRunner(options.getConcurrency(), options.getRate(), metrics,
+                        options.getApi() == Api.VIRTUAL), retry);
+            }
         }
     }
 
-    public static void runDemo(CqlSession session, long iterations) {
-        LOG.debug("Running demo with {} iterations", iterations);
+    public static void runDemo(CqlSession session, long iterations, AsyncWorkloadRunner runner, RetryExecutor retry) {
+        runDemo(session, iterations, runner, retry, null);
+    }
 
-        // Create new table to hold demo data (exit if it does)
-        final String tableName = USE_NEW_TABLE ? String.format("demo_%s", UUID.randomUUID().toString().replaceAll("-", "_")) : "demo_singleton";
+    public static void runDemo(CqlSession session, long iterations, AsyncWorkloadRunner runner, RetryExecutor retry, WriteBatcher batcher) {
+        runDemo(session, iterations, runner, retry, batcher, new MultiPartitionReader(session, retry, null, MultiPartitionReader.Mode.IN), READ_WINDOW, null);
+    }
 
-        Random r = new Random();
+    /**
+     * @param batcher    groups the inserts into batches, null to send each insert on its own
+     * @param reader     reads back the most recently written rows after each insert
+     * @param readWindow how many of the most recently written rows are read back
+     * @param cache      serves the rows it holds instead of the cluster, null to read all of them back
+     */
+    public static void runDemo(CqlSession session, long iterations, AsyncWorkloadRunner runner, RetryExecutor retry, WriteBatcher batcher,
+                               MultiPartitionReader reader, int readWindow, RowCache cache) {
+        LOG.debug("Running demo with {} iterations, concurrency {}, {} reads of {} ids", iterations, runner.getConcurrency(), reader.getMode(), readWindow);
 
-        try {
-            // attempt create whether we're using new table or not
-            LOG.debug("Creating table '{}'", tableName);
-            runWithRetries(session, buildCreateTableCql(tableName));
+        // rows cycle through pre-generated values so the loop itself allocates as little as possible
+        PayloadGenerator payloads = new PayloadGenerator(PAYLOADS, 10);
+        RecentIds ids = new RecentIds(readWindow);
+
+        withDemoTable(session, retry, statements -> runner.run(iterations, (i, intendedStart) -> {
+            // insert a new entry using the prepared write statement
+            DemoIteration iteration = new DemoIteration(i, payloads);
+            return iteration.bindInsert(session, statements)
+                    .thenCompose(write -> batcher != null
+                            ? batcher.add(write, intendedStart)
+                            : runWithRetriesAsync(retry, session, write, OperationType.INSERT, intendedStart))
+                    .thenCompose(written -> {
+                        List<UUID> misses = iteration.afterWrite(ids, cache);
+                        return misses.isEmpty()
+                                ? CompletableFuture.<Void>completedFuture(null)
+                                : reader.read(statements, misses, Operations::logRow, System.nanoTime());
+                    })
+                    .exceptionally(Operations::skipIfBudgetExhausted);
+        }));
+    }
+
+    /**
+     * The same demo as a Reactive Streams pipeline: each iteration is a publisher that inserts, then reads back, and
+     * the runner only subscribes to the next one when there is room for it.
+     */
+    public static void runDemo(CqlSession session, long iterations, ReactiveWorkloadRunner runner, RetryExecutor retry, WriteBatcher batcher,
+                               MultiPartitionReader reader, int readWindow, RowCache cache) {
+        LOG.debug("Running reactive demo with {} iterations, concurrency {}, {} reads of {} ids", iterations, runner.getConcurrency(), reader.getMode(), readWindow);
 
-            LinkedList<UUID> ids = new LinkedList<>();
+        PayloadGenerator payloads = new PayloadGenerator(PAYLOADS, 10);
+        RecentIds ids = new RecentIds(readWindow);
 
-            DefaultPrepareRequest writePrepareRequest = new DefaultPrepareRequest(SimpleStatement.newInstance(String.format("INSERT INTO %s (id, created_at, string, number) VALUES (?, ?, ?, ?)", tableName)));
-            DefaultPrepareRequest readPrepareRequest = new DefaultPrepareRequest(SimpleStatement.newInstance(String.format("SELECT created_at, string, number FROM %s WHERE id IN ?", tableName)));
+        withDemoTable(session, retry, statements -> runner.run(iterations, (i, intendedStart) -> {
+            DemoIteration iteration = new DemoIteration(i, payloads);
+            return Mono.fromCompletionStage(iteration.bindInsert(session, statements))
+                    .flatMap(write -> batcher != null
+                            ? Mono.fromCompletionStage(batcher.add(write, intendedStart)).then()
+                            : runWithRetriesReactive(retry, session, write, OperationType.INSERT, intendedStart).then())
+                    .thenMany(Flux.defer(() -> {
+                        List<UUID> misses = iteration.afterWrite(ids, cache);
+                        return misses.isEmpty() ? Flux.<ReactiveRow>empty() : reader.readReactive(statements, misses, System.nanoTime());
+                    }))
+                    .doOnNext(Operations::logRow)
+                    // already counted as an error, drop this iteration rather than stopping the whole run
+                    .onErrorResume(RetryExecutor.RetryBudgetExhaustedException.class, t -> Mono.empty());
+        }));
+    }
 
-            CompletionStage<PreparedStatement> preparedWrite = session.prepareAsync(writePrepareRequest);
-            CompletionStage<PreparedStatement> preparedRead = session.prepareAsync(readPrepareRequest);
+    /**
+     * The same demo in blocking style, each iteration waits for its insert and then for its read on its own thread.
+     */
+    public static void runDemo(CqlSession session, long iterations, BlockingWorkloadRunner runner, RetryExecutor retry, WriteBatcher batcher,
+                               MultiPartitionReader reader, int readWindow, RowCache cache) {
+        LOG.debug("Running blocking demo on {} threads with {} iterations, concurrency {}, {} reads of {} ids", runner.isVirtualThreads() ? "virtual" : "platform",
+                iterations, runner.getConcurrency(), reader.getMode(), readWindow);
 
-            int i=0;
-            // intentional !=  check so that setting iterations < 0 will loop forever
-            while (i != iterations) {
-                // create new entry with random field values using prepared write statement
-                Entry entry = new Entry(RandomStringUtils.randomAlphabetic(10), Math.abs(r.nextInt() % 9999));
-                LOG.debug("Run {}: Inserting new entry {}", i++, entry);
-                runWithRetries(session, CompletableFutures.getUninterruptibly(preparedWrite).bind(entry.id, Instant.now(), entry.string, entry.number));
+        PayloadGenerator payloads = new PayloadGenerator(PAYLOADS, 10);
+        RecentIds ids = new RecentIds(readWindow);
 
-                // accumulate new entry id and remove oldest if neccessary
-                ids.add(entry.id);
-                if (ids.size() > 10) {
-                    ids.removeFirst();
+        withDemoTable(session, retry, statements -> runner.run(iterations, (i, intendedStart) -> {
+            DemoIteration iteration = new DemoIteration(i, payloads);
+            try {
+                BoundStatement write = CompletableFutures.getUninterruptibly(iteration.bindInsert(session, statements));
+                if (batcher != null) {
+                    CompletableFutures.getUninterruptibly(batcher.add(write, intendedStart));
+                } else {
+                    runWithRetries(retry, session, write, OperationType.INSERT, intendedStart);
+                }
+                List<UUID> misses = iteration.afterWrite(ids, cache);
+                if (misses.isEmpty()) {
+                    return;
                 }
+                if (reader.getMode() == MultiPartitionReader.Mode.IN) {
+                    BoundStatement read = CompletableFutures.getUninterruptibly(statements.bind(session, SELECT_BY_IDS, misses));
+                    runWithRetries(retry, session, read, OperationType.SELECT, System.nanoTime()).forEach(Operations::logRow);
+                } else {
+                    CompletableFutures.getUninterruptibly(reader.read(statements, misses, Operations::logRow, System.nanoTime()));
+                }
+            } catch (RetryExecutor.RetryBudgetExhaustedException e) {
+                // already counted as an error, drop this iteration rather than stopping the whole run
+            }
+        }));
+    }
 
-                BoundStatement bs = CompletableFutures.getUninterruptibly(preparedRead).bind(ids);
+    // create the demo table and prepare its statements, then run the demo
+    private static void withDemoTable(CqlSession session, RetryExecutor retry, Consumer<PreparedStatementRegistry> demo) {
+        // Create new table to hold demo data (exit if it does)
+        final String tableName = USE_NEW_TABLE ? String.format("demo_%s", UUID.randomUUID().toString().replaceAll("-", "_")) : DEMO_TABLE;
+        PreparedStatementRegistry statements = USE_NEW_TABLE ? buildDemoStatements(tableName) : DEMO_STATEMENTS;
 
-                runWithRetries(session, bs)
-                        .forEach(row -> LOG.debug("Received record ({}, {}, {})", row.getInstant("created_at"), row.getString("string"), row.getInt("number")));
+        try {
+            // attempt create whether we're using new table or not
+            LOG.debug("Creating table '{}'", tableName);
+            runWithRetries(retry, session, buildCreateTableCql(tableName), OperationType.CREATE_TABLE);
 
-                System.gc();
-            }
+            // statements are prepared up-front (unless the session already did at startup), after that binding
+            // completes immediately so the hot path never waits on a prepare
+            CompletableFutures.getUninterruptibly(statements.prepareAll(session));
+
+            demo.accept(statements);
         } finally {
             if (USE_NEW_TABLE) {
                 // if we are using a new table clean it up
                 LOG.debug("Removing table '{}'", tableName);
                 try {
-                    runWithRetries(session, buildDropTableCql(tableName));
+                    runWithRetries(retry, session, buildDropTableCql(tableName), OperationType.CREATE_TABLE);
                 } catch (Exception e) {
                     LOG.error("failed to clean up table", e);
                 }
             }
 
+            LOG.info("Prepared statements for '{}': {} cache hits, {} misses", tableName, statements.getHits(), statements.getMisses());
             LOG.debug("Closing connection");
         }
     }
 
-    public static ResultSet runWithRetries(CqlSession session, Statement query) {
-        // Queries will be retried indefinitely on timeout, they must be idempotent
-        // In a real application there should be a limit to the number of retries
-        while (true) {
-            try {
-                return session.execute(query);
-            } catch (DriverTimeoutException | WriteTimeoutException | ReadTimeoutException | ClosedConnectionException e) {
-                // request timed-out, catch error and retry
-                LOG.warn(String.format("Error '%s' executing query '%s', retrying", e.getMessage(), query), e);
-            } catch (AllNodesFailedException e) {
-                LOG.error(String.format("AllNodesFailedException error '%s' executing query '%s', retrying", e.getMessage(), query), e);
+    private static void logRow(Row row) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(RequestLogSampler.REQUEST, "Received record ({}, {}, {})", row.getInstant("created_at"), row.getString("string"), row.getInt("number"));
+        }
+    }
+
+    private static void logRow(RowCache.CachedRow row) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug(RequestLogSampler.REQUEST, "Cached record ({}, {}, {})", row.getCreatedAt(), row.getString(), row.getNumber());
+        }
+    }
+
+    // hands the cached rows of ids to logRow and returns the ids left to read from the cluster
+    // already counted as an error, drop this iteration rather than stopping the whole run
+    private static Void skipIfBudgetExhausted(Throwable t) {
+        if (AsyncWorkloadRunner.unwrap(t) instanceof RetryExecutor.RetryBudgetExhaustedException) {
+            return null;
+        }
+        throw t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+    }
+
+    /**
+     * The row one demo iteration inserts, the same whichever API sends it.
+     */
+    private static final class DemoIteration {
+        final UUID id = PayloadGenerator.randomId();
+        final String string;
+        final int number;
+        final Instant createdAt = Instant.now();
+
+        DemoIteration(long iteration, PayloadGenerator payloads) {
+            this.string = payloads.string(iteration);
+            this.number = payloads.number(iteration);
+            LOG.debug(RequestLogSampler.REQUEST, "Run {}: Inserting new entry {} ({}, {})", iteration, id, string, number);
+        }
+
+        CompletionStage<BoundStatement> bindInsert(CqlSession session, PreparedStatementRegistry statements) {
+            return statements.bind(session, INSERT, id, createdAt, string, number);
+        }
+
+        /**
+         * Once the row is written, cache it and add it to the ids to read back.
+         *
+         * @return the most recently written ids that the cache, if any, does not hold and must be read back
+         */
+        List<UUID> afterWrite(RecentIds ids, RowCache cache) {
+            if (cache != null) {
+                cache.put(id, createdAt, string, number);
             }
+            ids.add(id);
+            List<UUID> recent = ids.snapshot();
+            return cache != null ? cache.serve(recent, Operations::logRow) : recent;
         }
     }
 
+    public static ResultSet runWithRetries(CqlSession session, Statement query) {
+        // Queries will be retried indefinitely on timeout, they must be idempotent
+        // In a real application there should be a limit to the number of retries, see RetryBudget
+        return runWithRetries(UNLIMITED_RETRIES, session, query, OperationType.SELECT);
+    }
+
+    public static ResultSet runWithRetries(RetryExecutor retry, CqlSession session, Statement query, OperationType type) {
+        return retry.execute(() -> session.execute(query), type, query);
+    }
+
+    public static ResultSet runWithRetries(RetryExecutor retry, CqlSession session, Statement query, OperationType type, long startNanos) {
+        // Latency is measured from startNanos, which may be earlier than now when the request was scheduled late
+        return retry.execute(() -> session.execute(query), type, startNanos, query);
+    }
+
+    public static CompletionStage<AsyncResultSet> runWithRetriesAsync(RetryExecutor retry, CqlSession session, Statement query, OperationType type, long startNanos) {
+        // Non-blocking equivalent of runWithRetries, retries are scheduled after a backoff instead of looping
+        // Latency is measured from startNanos, which may be earlier than now when the request was scheduled late
+        return retry.executeAsync(() -> session.executeAsync(query), type, startNanos, query);
+    }
+
+    public static Flux<ReactiveRow> runWithRetriesReactive(RetryExecutor retry, CqlSession session, Statement query, OperationType type, long startNanos) {
+        // executeReactive equivalent of runWithRetriesAsync, nothing is sent until subscribed
+        // Each attempt subscribes to a new publisher, only the rows of the attempt that succeeded are emitted
+        return Mono.fromCompletionStage(() -> retry.executeAsync(() -> Flux.from(session.executeReactive(query)).collectList().toFuture(), type, startNanos, query))
+                .flatMapIterable(rows -> rows);
+    }
+
     public static CqlSession connect(CqlSessionBuilder sessionBuilder, DriverConfigLoader primaryScbConfig) {
         // Create the database connection session, retry connection failure an unlimited number of times
         // In a real application there should be a limit to the number of retries
         while (true) {
+            FlightRecorder.Span span = FlightRecorder.beginConnect("cluster");
             try {
-                return sessionBuilder.withConfigLoader(primaryScbConfig).build();
+                CqlSession session = sessionBuilder.withConfigLoader(primaryScbConfig).build();
+                span.finish(null);
+                return session;
             } catch (AllNodesFailedException e) {
+                span.finish(e);
                 // session creation failed, probably due to time-out, catch error and retry
                 LOG.warn("Failed to create session.", e);
             }
@@ -150,16 +362,29 @@ public class Operations {
         // Create the database connection session, retry connection failure an unlimited number of times
         // In a real application there should be a limit to the number of retries
         while (true) {
+            FlightRecorder.Span span = FlightRecorder.beginConnect(primaryScb);
             try {
-                return sessionBuilder
+                CqlSession session = sessionBuilder
                         .withCloudSecureConnectBundle(Paths.get(primaryScb))
                         .withConfigLoader(staticConfig).build();
+                span.finish(null);
+                return session;
             } catch (AllNodesFailedException | IllegalStateException e) {
+                span.finish(e);
                 // session creation failed, probably due to time-out, catch error and retry
                 LOG.warn("Failed to create session.", e);
-                return sessionBuilder
-                        .withCloudSecureConnectBundle(Paths.get(fallbackScb))
-                        .withConfigLoader(staticConfig).build();
+                FlightRecorder.failover(primaryScb, fallbackScb, "primary failed to connect: " + e.getMessage());
+                FlightRecorder.Span fallbackSpan = FlightRecorder.beginConnect(fallbackScb);
+                try {
+                    CqlSession session = sessionBuilder
+                            .withCloudSecureConnectBundle(Paths.get(fallbackScb))
+                            .withConfigLoader(staticConfig).build();
+                    fallbackSpan.finish(null);
+                    return session;
+                } catch (RuntimeException fallbackError) {
+                    fallbackSpan.finish(fallbackError);
+                    throw fallbackError;
+                }
             }
         }
     }
@@ -0,0 +1,51 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Demo row values generated once up-front and handed out round-robin, so producing a row on the hot path costs an
+ * array lookup instead of building a new random string. Ids come from a non-cryptographic per-thread random source,
+ * unlike {@link UUID#randomUUID()} whose shared {@code SecureRandom} is slow and contended.
+ */
+public class PayloadGenerator {
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+
+    private final String[] strings;
+    private final int[] numbers;
+
+    /**
+     * @param size         number of distinct payloads, a power of two
+     * @param stringLength length of the generated strings
+     */
+    public PayloadGenerator(int size, int stringLength) {
+        if (size <= 0 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("size must be a power of two");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        strings = new String[size];
+        numbers = new int[size];
+        char[] chars = new char[stringLength];
+        for (int i = 0; i < size; i++) {
+            for (int c = 0; c < stringLength; c++) {
+                chars[c] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            strings[i] = new String(chars);
+            numbers[i] = random.nextInt(9999);
+        }
+    }
+
+    public static UUID randomId() {
+        return Uuids.random(ThreadLocalRandom.current());
+    }
+
+    public String string(long iteration) {
+        return strings[(int) (iteration & (strings.length - 1))];
+    }
+
+    public int number(long iteration) {
+        return numbers[(int) (iteration & (numbers.length - 1))];
+    }
+}
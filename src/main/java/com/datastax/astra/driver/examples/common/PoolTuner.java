@@ -0,0 +1,207 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.codahale.metrics.Gauge;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfig;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.context.DriverContext;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metrics.DefaultNodeMetric;
+import com.datastax.oss.driver.api.core.metrics.Metrics;
+import com.datastax.oss.driver.internal.core.config.typesafe.DefaultDriverConfigLoader;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Config loader that sizes the connection pools from their utilization: the share of the stream ids of the busiest
+ * node's connections that are in flight, read from the driver's pool gauges once a second.
+ * <p>
+ * A busy pool gets more connections, up to the maximum size, an idle one gives them back down to the minimum size.
+ * Changes are applied by reloading the configuration, after which the driver resizes the pools. Each change is left
+ * to settle for a few seconds before the next one. A pool that is still busy at its maximum size is reported as
+ * saturated: the requests per connection are not raised, the driver only reads them when it opens a connection.
+ */
+public class PoolTuner implements DriverConfigLoader {
+    private static final Logger LOG = LoggerFactory.getLogger(PoolTuner.class);
+
+    private static final String POOL_SIZE_PATH = DefaultDriverConfigLoader.DEFAULT_ROOT_PATH + "." + DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE.getPath();
+
+    static final double GROW_ABOVE = 0.7;
+    static final double SHRINK_BELOW = 0.2;
+    private static final long INTERVAL_MILLIS = 1000L;
+    private static final int SETTLE_INTERVALS = 5;
+
+    private final String configResource;
+    private final int minPoolSize;
+    private final int maxPoolSize;
+    private final DefaultDriverConfigLoader delegate;
+    private volatile int poolSize;
+    private volatile boolean saturated;
+    private int settling;
+    private DriverContext context;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param configResource classpath resource holding the driver configuration, e.g. astra.conf
+     */
+    public PoolTuner(String configResource, int minPoolSize, int maxPoolSize) {
+        this.configResource = configResource;
+        this.minPoolSize = minPoolSize;
+        this.maxPoolSize = maxPoolSize;
+        this.poolSize = minPoolSize;
+        this.delegate = new DefaultDriverConfigLoader(this::load);
+    }
+
+    /**
+     * Load {@code configResource}, with a tuner if the options give a pool size.
+     */
+    public static DriverConfigLoader configLoader(ConnectionOptions options, String configResource) {
+        if (options.getMinPoolSize() <= 0) {
+            return DriverConfigLoader.fromClasspath(configResource);
+        }
+        return new PoolTuner(configResource, options.getMinPoolSize(), options.getMaxPoolSize());
+    }
+
+    // the resource with the current size on top, read again on every reload
+    private Config load() {
+        ConfigFactory.invalidateCaches();
+        return ConfigFactory.parseMap(Collections.singletonMap(POOL_SIZE_PATH, poolSize))
+                .withFallback(ConfigFactory.defaultOverrides())
+                .withFallback(ConfigFactory.parseResourcesAnySyntax(configResource))
+                .withFallback(ConfigFactory.defaultReference(CqlSession.class.getClassLoader()))
+                .resolve()
+                .getConfig(DefaultDriverConfigLoader.DEFAULT_ROOT_PATH);
+    }
+
+    @NonNull
+    @Override
+    public DriverConfig getInitialConfig() {
+        return delegate.getInitialConfig();
+    }
+
+    @Override
+    public void onDriverInit(@NonNull DriverContext context) {
+        delegate.onDriverInit(context);
+        this.context = context;
+        if (maxPoolSize > minPoolSize) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "pool-tuner-" + context.getSessionName());
+                t.setDaemon(true);
+                return t;
+            });
+            scheduler.scheduleWithFixedDelay(this::tick, INTERVAL_MILLIS, INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @NonNull
+    @Override
+    public CompletionStage<Boolean> reload() {
+        return delegate.reload();
+    }
+
+    @Override
+    public boolean supportsReloading() {
+        return delegate.supportsReloading();
+    }
+
+    @Override
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        delegate.close();
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    /**
+     * Whether the pool was still busy at its maximum size when last measured.
+     */
+    public boolean isSaturated() {
+        return saturated;
+    }
+
+    private void tick() {
+        try {
+            double utilization = utilization();
+            if (utilization >= 0 && adjust(utilization)) {
+                LOG.info("Pool utilization {}%: {} connections per node", Math.round(utilization * 100), poolSize);
+                delegate.reload().whenComplete((changed, t) -> {
+                    if (t != null) {
+                        LOG.warn("Failed to apply the pool settings: {}", t.toString());
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Pool tuning failed", e);
+        }
+    }
+
+    // busiest node's in-flight requests over the stream ids of its connections, -1 when unknown
+    private double utilization() {
+        Optional<Metrics> metrics = ((InternalDriverContext) context).getMetricsFactory().getMetrics();
+        if (!metrics.isPresent()) {
+            return -1;
+        }
+        double busiest = -1;
+        for (Node node : ((InternalDriverContext) context).getMetadataManager().getMetadata().getNodes().values()) {
+            Optional<Gauge<Integer>> inFlight = metrics.get().getNodeMetric(node, DefaultNodeMetric.IN_FLIGHT);
+            Optional<Gauge<Integer>> available = metrics.get().getNodeMetric(node, DefaultNodeMetric.AVAILABLE_STREAMS);
+            if (inFlight.isPresent() && available.isPresent()) {
+                int total = inFlight.get().getValue() + available.get().getValue();
+                if (total > 0) {
+                    busiest = Math.max(busiest, (double) inFlight.get().getValue() / total);
+                }
+            }
+        }
+        return busiest;
+    }
+
+    /**
+     * Step the pool size for the measured utilization, between 0 and 1.
+     *
+     * @return whether the size changed
+     */
+    boolean adjust(double utilization) {
+        if (settling > 0) {
+            settling--;
+            return false;
+        }
+        if (utilization >= GROW_ABOVE && poolSize == maxPoolSize) {
+            // more requests per connection would only apply to new connections, and none are opened at this size
+            if (!saturated) {
+                LOG.warn("Connection pools saturated: {}% of the stream ids in flight with {} connections per node",
+                        Math.round(utilization * 100), poolSize);
+            }
+            saturated = true;
+            return false;
+        }
+        saturated = false;
+        int newPoolSize = poolSize;
+        if (utilization >= GROW_ABOVE) {
+            newPoolSize = poolSize + 1;
+        } else if (utilization <= SHRINK_BELOW && poolSize > minPoolSize) {
+            newPoolSize = poolSize - 1;
+        }
+        if (newPoolSize == poolSize) {
+            return false;
+        }
+        poolSize = newPoolSize;
+        settling = SETTLE_INTERVALS;
+        return true;
+    }
+}
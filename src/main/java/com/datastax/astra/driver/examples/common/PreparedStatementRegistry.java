@@ -0,0 +1,184 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.metadata.schema.SchemaChangeListenerBase;
+import com.datastax.oss.driver.api.core.metadata.schema.TableMetadata;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Named CQL statements for one table, prepared once per session and shared by everything that uses that session.
+ * <p>
+ * Binding is non-blocking: once a statement is prepared {@link #bind} completes immediately, otherwise it completes
+ * when the prepare does. Failed prepares are not cached so the next use retries them. When registered as a schema
+ * change listener on the session builder, changes to the table drop the cached statements so they are prepared
+ * again on next use; {@link #prepareAll} can also be called to re-prepare on a session ahead of time, e.g. on failover.
+ * Cache hits and misses are counted so accidental re-prepares show up.
+ */
+public class PreparedStatementRegistry extends SchemaChangeListenerBase {
+    private static final Logger LOG = LoggerFactory.getLogger(PreparedStatementRegistry.class);
+
+    private final String table;
+    private final CqlIdentifier tableId;
+    private final Map<String, SimpleStatement> statements = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final ConcurrentMap<CqlSession, ConcurrentMap<String, CompletableFuture<PreparedStatement>>> prepared = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public PreparedStatementRegistry(String table) {
+        this.table = table;
+        this.tableId = CqlIdentifier.fromCql(table);
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @param cqlTemplate CQL with a {@code %s} placeholder for the table name
+     * @param idempotent  whether statements bound from it may be retried and speculatively executed
+     */
+    public PreparedStatementRegistry register(String name, String cqlTemplate, boolean idempotent) {
+        statements.put(name, SimpleStatement.newInstance(String.format(cqlTemplate, table)).setIdempotent(idempotent));
+        return this;
+    }
+
+    public SimpleStatement getStatement(String name) {
+        SimpleStatement statement = statements.get(name);
+        if (statement == null) {
+            throw new IllegalArgumentException("No statement registered as '" + name + "'");
+        }
+        return statement;
+    }
+
+    public List<SimpleStatement> getStatements() {
+        synchronized (statements) {
+            return new ArrayList<>(statements.values());
+        }
+    }
+
+    public CompletionStage<PreparedStatement> prepare(CqlSession session, String name) {
+        ConcurrentMap<String, CompletableFuture<PreparedStatement>> forSession = prepared.get(session);
+        if (forSession == null) {
+            forSession = prepared.computeIfAbsent(session, s -> {
+                // nothing prepared on a session outlives it
+                s.closeFuture().thenRun(() -> invalidate(s));
+                return new ConcurrentHashMap<>();
+            });
+        }
+        CompletableFuture<PreparedStatement> future = forSession.get(name);
+        if (future != null && !future.isCompletedExceptionally()) {
+            hits.increment();
+            return future;
+        }
+        misses.increment();
+        CompletableFuture<PreparedStatement> preparing = new CompletableFuture<>();
+        CompletableFuture<PreparedStatement> existing = future == null ? forSession.putIfAbsent(name, preparing) : (forSession.replace(name, future, preparing) ? null : forSession.get(name));
+        if (existing != null) {
+            // another thread started preparing first
+            return existing;
+        }
+        SimpleStatement statement = getStatement(name);
+        ConcurrentMap<String, CompletableFuture<PreparedStatement>> cache = forSession;
+        session.prepareAsync(statement).whenComplete((ps, t) -> {
+            if (t != null) {
+                LOG.warn("Failed to prepare '{}': {}", statement.getQuery(), t.toString());
+                cache.remove(name, preparing);
+                preparing.completeExceptionally(t);
+            } else {
+                preparing.complete(ps);
+            }
+        });
+        return preparing;
+    }
+
+    /**
+     * Prepare every registered statement on {@code session}, completing once all are prepared or one has failed.
+     */
+    public CompletionStage<Void> prepareAll(CqlSession session) {
+        List<CompletionStage<PreparedStatement>> all = new ArrayList<>();
+        for (String name : names()) {
+            all.add(prepare(session, name));
+        }
+        return CompletableFutures.allSuccessful(all);
+    }
+
+    private Collection<String> names() {
+        synchronized (statements) {
+            return new ArrayList<>(statements.keySet());
+        }
+    }
+
+    public CompletionStage<BoundStatement> bind(CqlSession session, String name, Object... values) {
+        return bind(session, name, ps -> ps.bind(values));
+    }
+
+    /**
+     * @param binder binds the prepared statement, e.g. with the typed setters of its {@code boundStatementBuilder()}
+     */
+    public CompletionStage<BoundStatement> bind(CqlSession session, String name, Function<PreparedStatement, BoundStatement> binder) {
+        FlightRecorder.Span span = FlightRecorder.beginBind(name);
+        CompletionStage<BoundStatement> bound = prepare(session, name).thenApply(binder);
+        return span == FlightRecorder.Span.NONE ? bound : bound.whenComplete((statement, t) -> span.finish(t));
+    }
+
+    /**
+     * Forget everything prepared on {@code session}, done automatically once it is closed.
+     */
+    public void invalidate(CqlSession session) {
+        prepared.remove(session);
+    }
+
+    public void invalidateAll() {
+        prepared.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public void onTableCreated(@NonNull TableMetadata table) {
+        onTableChanged(table);
+    }
+
+    @Override
+    public void onTableDropped(@NonNull TableMetadata table) {
+        onTableChanged(table);
+    }
+
+    @Override
+    public void onTableUpdated(@NonNull TableMetadata current, @NonNull TableMetadata previous) {
+        onTableChanged(current);
+    }
+
+    private void onTableChanged(TableMetadata changed) {
+        if (tableId.equals(changed.getName())) {
+            LOG.info("Table {} changed, statements will be prepared again", changed.getName());
+            invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.datastax.astra.driver.examples.common;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Reactive Streams counterpart of {@link AsyncWorkloadRunner}: the iterations are a publisher, each one is mapped to
+ * the publisher of its requests with {@code flatMap}, and at most {@code concurrency} of those are subscribed at
+ * once. Nothing is issued without demand: {@code flatMap} only asks for the next iteration when one in flight
+ * completes, so a slow cluster slows the producer down instead of queueing futures.
+ * <p>
+ * Iterations are produced on their own thread, never on the driver's I/O threads that signal the completions. With a
+ * target rate the runner is open-loop and records schedule lag, as {@link AsyncWorkloadRunner} does. The first failed
+ * iteration cancels the ones in flight and is rethrown.
+ */
+public class ReactiveWorkloadRunner {
+    private static final Logger LOG = LoggerFactory.getLogger(ReactiveWorkloadRunner.class);
+
+    /**
+     * One iteration of a workload, must not block the calling thread.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * @param iteration          zero-based iteration number
+         * @param intendedStartNanos {@link System#nanoTime()} at which this iteration should have started
+         * @return the iteration's requests, only sent once subscribed
+         */
+        Publisher<?> run(long iteration, long intendedStartNanos);
+    }
+
+    private final int concurrency;
+    private final double rate;
+    private final WorkloadMetrics metrics;
+    private final LongAdder completed = new LongAdder();
+
+    public ReactiveWorkloadRunner(int concurrency) {
+        this(concurrency, 0, null);
+    }
+
+    /**
+     * @param rate    target iterations per second, 0 or less for a closed loop
+     * @param metrics where schedule lag is recorded in open-loop mode, may be null
+     */
+    public ReactiveWorkloadRunner(int concurrency, double rate, WorkloadMetrics metrics) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Run {@code operation} {@code iterations} times (forever if negative) and wait for all of them to finish.
+     */
+    public void run(long iterations, Operation operation) {
+        LOG.debug("Running {} iterations reactively with up to {} in flight, target rate {}/s", iterations, concurrency, rate > 0 ? rate : "unbounded");
+        final double intervalNanos = rate > 0 ? 1e9 / rate : 0;
+        final long startNanos = System.nanoTime();
+        Scheduler producer = Schedulers.newSingle("reactive-producer", true);
+        try {
+            // called once per unit of demand, on the producer thread
+            Flux<Long> schedule = Flux.generate(() -> 0L, (i, sink) -> {
+                // intentional != check so that setting iterations < 0 will loop forever
+                if (i == iterations) {
+                    sink.complete();
+                    return i;
+                }
+                if (intervalNanos > 0) {
+                    long intendedStart = startNanos + (long) (i * intervalNanos);
+                    long wait;
+                    while ((wait = intendedStart - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    if (metrics != null) {
+                        metrics.recordScheduleLag(System.nanoTime() - intendedStart);
+                    }
+                }
+                sink.next(i);
+                return i + 1;
+            });
+            schedule.subscribeOn(producer)
+                    .flatMap(i -> {
+                        long intendedStart = intervalNanos > 0 ? startNanos + (long) (i * intervalNanos) : System.nanoTime();
+                        Publisher<?> requests;
+                        try {
+                            requests = operation.run(i, intendedStart);
+                        } catch (Throwable t) {
+                            return Mono.error(t);
+                        }
+                        return Flux.from(requests).then().doOnSuccess(v -> completed.increment());
+                    }, concurrency)
+                    .blockLast();
+        } catch (RuntimeException e) {
+            // blockLast wraps checked exceptions
+            Throwable t = Exceptions.unwrap(e);
+            throw t instanceof RuntimeException ? (RuntimeException) t : e;
+        } finally {
+            producer.dispose();
+        }
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public long getCompleted() {
+        return completed.sum();
+    }
+}
@@ -0,0 +1,39 @@
+package com.datastax.astra.driver.examples.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The last {@code capacity} ids added, kept in a fixed-size ring so adding one neither locks nor allocates.
+ */
+public class RecentIds {
+    private final AtomicReferenceArray<UUID> ids;
+    private final AtomicLong added = new AtomicLong();
+
+    public RecentIds(int capacity) {
+        this.ids = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(UUID id) {
+        ids.set((int) (added.getAndIncrement() % ids.length()), id);
+    }
+
+    /**
+     * Copy of the ids currently in the ring, in no particular order.
+     */
+    public List<UUID> snapshot() {
+        int size = (int) Math.min(added.get(), ids.length());
+        List<UUID> copy = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UUID id = ids.get(i);
+            // a slot claimed by a concurrent add may not be filled in yet
+            if (id != null) {
+                copy.add(id);
+            }
+        }
+        return copy;
+    }
+}
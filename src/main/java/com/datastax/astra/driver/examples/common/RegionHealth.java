@@ -0,0 +1,91 @@
+package com.datastax.astra.driver.examples.common;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moving averages of the latency and error rate of requests sent to one region.
+ * Updates are lock-free so they can be made from driver I/O threads on every response.
+ */
+public class RegionHealth {
+    // weight of each new sample in the moving averages
+    private static final double ALPHA = 0.05;
+    // a region is degraded once most recent requests fail or responses take seconds on average
+    private static final double DEGRADED_ERROR_RATE = 0.5;
+    private static final long DEGRADED_LATENCY_NANOS = TimeUnit.SECONDS.toNanos(2);
+    // and only counts as recovered once it is clearly healthy again, so traffic does not flap between regions
+    private static final double RECOVERED_ERROR_RATE = 0.1;
+    private static final long RECOVERED_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final String name;
+    // doubles stored as raw long bits
+    private final AtomicLong latencyNanos = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicLong errorRate = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    public RegionHealth(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long latencyNanos, boolean failed) {
+        requests.increment();
+        if (failed) {
+            errors.increment();
+        }
+        update(this.latencyNanos, latencyNanos);
+        update(this.errorRate, failed ? 1.0 : 0.0);
+    }
+
+    /**
+     * Treat the region as unreachable, e.g. when no session could be opened to it.
+     */
+    public void markDown() {
+        errorRate.set(Double.doubleToRawLongBits(1.0));
+    }
+
+    private static void update(AtomicLong average, double sample) {
+        long current;
+        double next;
+        do {
+            current = average.get();
+            double value = Double.longBitsToDouble(current);
+            next = value + ALPHA * (sample - value);
+        } while (!average.compareAndSet(current, Double.doubleToRawLongBits(next)));
+    }
+
+    public double getLatencyMillis() {
+        return Double.longBitsToDouble(latencyNanos.get()) / 1e6;
+    }
+
+    public double getErrorRate() {
+        return Double.longBitsToDouble(errorRate.get());
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    public boolean isDegraded() {
+        return getErrorRate() > DEGRADED_ERROR_RATE || Double.longBitsToDouble(latencyNanos.get()) > DEGRADED_LATENCY_NANOS;
+    }
+
+    public boolean isRecovered() {
+        return getErrorRate() < RECOVERED_ERROR_RATE && Double.longBitsToDouble(latencyNanos.get()) < RECOVERED_LATENCY_NANOS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s{latency=%.1fms, errorRate=%.2f, requests=%d, errors=%d}",
+                name, getLatencyMillis(), getErrorRate(), getRequests(), getErrors());
+    }
+}
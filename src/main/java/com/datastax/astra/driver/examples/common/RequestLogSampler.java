@@ -0,0 +1,37 @@
+package com.datastax.astra.driver.examples.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps one in {@code oneIn} of the log events marked {@link #REQUEST}, the per-request lines of the hot path. The
+ * decision is made before the message is formatted, so sampled out events cost next to nothing. Slow and failed
+ * requests are logged without the marker and always kept.
+ * <p>
+ * Calls that only check whether a level is enabled are not sampled, so a guard followed by the actual call is
+ * only sampled once.
+ */
+public class RequestLogSampler extends TurboFilter {
+
+    public static final Marker REQUEST = MarkerFactory.getMarker("REQUEST");
+
+    private int oneIn = 100;
+
+    public void setOneIn(int oneIn) {
+        this.oneIn = oneIn;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (format == null || marker == null || oneIn <= 1 || !marker.contains(REQUEST)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(oneIn) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,70 @@
+package com.datastax.astra.driver.examples.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket shared by all requests that limits retries to a fraction of the base request rate.
+ * Every original request deposits {@code ratio} of a token and every retry withdraws a whole one, so over time
+ * retries can add at most {@code ratio * 100}% extra load. The bucket starts full with {@code burst} tokens so that
+ * isolated failures are retried straight away.
+ */
+public class RetryBudget {
+    // balance is kept in thousandths of a token so deposits of fractional tokens stay lock-free
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong balance;
+
+    /**
+     * @param ratio retries allowed per original request, negative for unlimited retries
+     * @param burst maximum number of retries that can be saved up
+     */
+    public RetryBudget(double ratio, int burst) {
+        this.deposit = ratio < 0 ? -1 : Math.round(ratio * SCALE);
+        this.capacity = burst * SCALE;
+        this.balance = new AtomicLong(capacity);
+    }
+
+    public static RetryBudget unlimited() {
+        return new RetryBudget(-1, 0);
+    }
+
+    public boolean isUnlimited() {
+        return deposit < 0;
+    }
+
+    public void onRequest() {
+        if (deposit <= 0) {
+            return;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current >= capacity) {
+                return;
+            }
+        } while (!balance.compareAndSet(current, Math.min(capacity, current + deposit)));
+    }
+
+    /**
+     * Withdraw a token for a retry, returns false if the budget is exhausted and the request should fail instead.
+     */
+    public boolean tryRetry() {
+        if (isUnlimited()) {
+            return true;
+        }
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getTokens() {
+        return (double) balance.get() / SCALE;
+    }
+}
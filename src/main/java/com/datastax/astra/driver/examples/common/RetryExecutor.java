@@ -0,0 +1,208 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Retries idempotent requests according to their {@link RetryPolicy}, within a global {@link RetryBudget}.
+ * Asynchronous requests are retried from a timer after their backoff delay so no thread is held while waiting.
+ * Latency (including retries), retry counts, failed attempt latency and backoff delays are recorded in the
+ * {@link WorkloadMetrics} when one is provided. Requests slower than the slow request threshold are logged one by
+ * one, unlike the sampled per-request debug lines.
+ */
+public class RetryExecutor implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(RetryExecutor.class);
+
+    /**
+     * Thrown when a request failed with a retryable error but the retry budget had no tokens left.
+     */
+    public static class RetryBudgetExhaustedException extends RuntimeException {
+        RetryBudgetExhaustedException(Throwable cause) {
+            super("Retry budget exhausted", cause);
+        }
+    }
+
+    private static final long NO_RETRY = -1;
+    private static final long BUDGET_EXHAUSTED = -2;
+
+    private final RetryBudget budget;
+    private final WorkloadMetrics metrics;
+    private final ScheduledExecutorService scheduler;
+    private final long slowRequestNanos;
+
+    public RetryExecutor(RetryBudget budget, WorkloadMetrics metrics) {
+        this(budget, metrics, 0);
+    }
+
+    /**
+     * @param slowRequestMillis log requests that took at least this long, 0 or less to log none
+     */
+    public RetryExecutor(RetryBudget budget, WorkloadMetrics metrics, long slowRequestMillis) {
+        this.budget = budget;
+        this.metrics = metrics;
+        this.slowRequestNanos = slowRequestMillis > 0 ? TimeUnit.MILLISECONDS.toNanos(slowRequestMillis) : Long.MAX_VALUE;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "retry-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static RetryExecutor fromOptions(ConnectionOptions options, WorkloadMetrics metrics) {
+        return new RetryExecutor(options.getRetryBudget(), metrics, options.getSlowRequest());
+    }
+
+    /**
+     * Run {@code request} until it succeeds, fails with a non-retryable error or the retry budget is exhausted.
+     * Latency is measured from {@code startNanos}, which may be earlier than now when the request was scheduled late.
+     */
+    public <T> CompletionStage<T> executeAsync(Supplier<? extends CompletionStage<T>> request, OperationType type, long startNanos, Object description) {
+        budget.onRequest();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attemptAsync(request, type, startNanos, description, 1, result);
+        return result;
+    }
+
+    private <T> void attemptAsync(Supplier<? extends CompletionStage<T>> request, OperationType type, long startNanos, Object description, int attempt, CompletableFuture<T> result) {
+        long attemptStart = System.nanoTime();
+        FlightRecorder.Span span = FlightRecorder.beginAttempt(type, attempt, description);
+        CompletionStage<T> stage;
+        try {
+            stage = request.get();
+        } catch (Throwable t) {
+            stage = CompletableFutures.failedFuture(t);
+        }
+        stage.whenComplete((value, t) -> {
+            span.finish(t);
+            if (t == null) {
+                recordSuccess(type, startNanos, description);
+                result.complete(value);
+                return;
+            }
+            long delay = onFailure(t, type, attemptStart, attempt, description);
+            if (delay < 0) {
+                result.completeExceptionally(failure(t, delay));
+            } else {
+                scheduler.schedule(() -> attemptAsync(request, type, startNanos, description, attempt + 1, result), delay, TimeUnit.NANOSECONDS);
+            }
+        });
+    }
+
+    /**
+     * Blocking equivalent of {@link #executeAsync}, the calling thread sleeps through the backoff delays.
+     */
+    public <T> T execute(Supplier<T> request, OperationType type, Object description) {
+        return execute(request, type, System.nanoTime(), description);
+    }
+
+    /**
+     * Latency is measured from {@code startNanos}, which may be earlier than now when the request was scheduled late.
+     */
+    public <T> T execute(Supplier<T> request, OperationType type, long startNanos, Object description) {
+        budget.onRequest();
+        for (int attempt = 1; ; attempt++) {
+            long attemptStart = System.nanoTime();
+            FlightRecorder.Span span = FlightRecorder.beginAttempt(type, attempt, description);
+            try {
+                T value = request.get();
+                span.finish(null);
+                recordSuccess(type, startNanos, description);
+                return value;
+            } catch (RuntimeException e) {
+                span.finish(e);
+                long delay = onFailure(e, type, attemptStart, attempt, description);
+                if (delay < 0) {
+                    throw failure(e, delay);
+                }
+                sleepNanos(delay);
+            }
+        }
+    }
+
+    // returns the backoff delay before the next attempt, or a negative value if the request must fail
+    private long onFailure(Throwable t, OperationType type, long attemptStart, int attempt, Object description) {
+        RetryPolicy policy = RetryPolicy.classify(t);
+        if (!policy.isRetryable()) {
+            recordError(type);
+            return NO_RETRY;
+        }
+        if (!budget.tryRetry()) {
+            recordError(type);
+            LOG.warn("Error '{}' executing query '{}', retry budget exhausted", t.getMessage(), describe(description));
+            return BUDGET_EXHAUSTED;
+        }
+        long delay = policy.backoffNanos(attempt);
+        if (metrics != null) {
+            metrics.get(OperationType.RETRY).recordSince(attemptStart);
+            metrics.get(OperationType.RETRY_BACKOFF).recordLatency(delay);
+            metrics.get(type).recordRetry();
+        }
+        // formatting is left to the logger so nothing is built unless the message is actually written
+        LOG.warn("Error '{}' executing query '{}', retry {} in {} ms", t.getMessage(), describe(description), attempt, TimeUnit.NANOSECONDS.toMillis(delay));
+        return delay;
+    }
+
+    private static RuntimeException failure(Throwable t, long delay) {
+        t = AsyncWorkloadRunner.unwrap(t);
+        if (delay == BUDGET_EXHAUSTED) {
+            return new RetryBudgetExhaustedException(t);
+        }
+        return t instanceof RuntimeException ? (RuntimeException) t : new RuntimeException(t);
+    }
+
+    private void recordSuccess(OperationType type, long startNanos, Object description) {
+        long latency = System.nanoTime() - startNanos;
+        if (metrics != null) {
+            // latency includes any retries of this request
+            metrics.get(type).recordLatency(latency);
+        }
+        if (latency >= slowRequestNanos) {
+            LOG.info("Slow {} request took {} ms: {}", type, TimeUnit.NANOSECONDS.toMillis(latency), describe(description));
+        }
+    }
+
+    // the query of a statement, its toString() says nothing about it
+    static Object describe(Object description) {
+        if (description instanceof BoundStatement) {
+            return ((BoundStatement) description).getPreparedStatement().getQuery();
+        }
+        if (description instanceof SimpleStatement) {
+            return ((SimpleStatement) description).getQuery();
+        }
+        return description;
+    }
+
+    private void recordError(OperationType type) {
+        if (metrics != null) {
+            metrics.get(type).recordError();
+        }
+    }
+
+    private static void sleepNanos(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting to retry", e);
+        }
+    }
+
+    public RetryBudget getBudget() {
+        return budget;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
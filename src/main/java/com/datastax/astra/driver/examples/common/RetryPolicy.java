@@ -0,0 +1,61 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.AllNodesFailedException;
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import com.datastax.oss.driver.api.core.connection.ClosedConnectionException;
+import com.datastax.oss.driver.api.core.servererrors.ReadTimeoutException;
+import com.datastax.oss.driver.api.core.servererrors.WriteTimeoutException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a failed request should be retried, chosen from the error it failed with.
+ * Delays grow exponentially with the attempt number and are fully jittered so that clients which failed together
+ * do not all retry together.
+ */
+public enum RetryPolicy {
+    // request timed-out on the client or on a replica, back off so a struggling coordinator can recover
+    TIMEOUT(10, 1_000),
+    // connection was dropped, the next attempt will most likely use another connection so retry quickly
+    CONNECTION(1, 100),
+    // no node could be reached at all, wait longer between attempts
+    UNAVAILABLE(100, 5_000),
+    NO_RETRY(0, 0);
+
+    private final long baseDelayNanos;
+    private final long maxDelayNanos;
+
+    RetryPolicy(long baseDelayMillis, long maxDelayMillis) {
+        this.baseDelayNanos = TimeUnit.MILLISECONDS.toNanos(baseDelayMillis);
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+    }
+
+    public static RetryPolicy classify(Throwable t) {
+        t = AsyncWorkloadRunner.unwrap(t);
+        if (t instanceof DriverTimeoutException || t instanceof ReadTimeoutException || t instanceof WriteTimeoutException) {
+            return TIMEOUT;
+        } else if (t instanceof ClosedConnectionException) {
+            return CONNECTION;
+        } else if (t instanceof AllNodesFailedException) {
+            return UNAVAILABLE;
+        }
+        return NO_RETRY;
+    }
+
+    public boolean isRetryable() {
+        return this != NO_RETRY;
+    }
+
+    /**
+     * Delay before retry number {@code attempt} (starting at 1): uniformly random up to min(max, base * 2^(attempt-1)).
+     */
+    public long backoffNanos(int attempt) {
+        if (baseDelayNanos == 0) {
+            return 0;
+        }
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long ceiling = Math.min(maxDelayNanos, baseDelayNanos << shift);
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,148 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Write-through cache of demo rows by id, in front of the read-back queries. Rows are added once their insert has
+ * succeeded, reads are served from it where possible and only the ids it does not hold are sent to the cluster.
+ * <p>
+ * Backed by Caffeine, which is safe for concurrent writers and evicts with W-TinyLFU once the estimated size of the
+ * cached rows exceeds the limit, and expires rows a fixed time after they were written.
+ */
+public class RowCache {
+
+    // key, cache node, row and timestamp objects, roughly, on a 64-bit JVM with compressed pointers
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    /**
+     * The columns of a demo row read back by {@link Operations#SELECT_BY_IDS}.
+     */
+    public static final class CachedRow {
+        private final Instant createdAt;
+        private final String string;
+        private final int number;
+
+        CachedRow(Instant createdAt, String string, int number) {
+            this.createdAt = createdAt;
+            this.string = string;
+            this.number = number;
+        }
+
+        public Instant getCreatedAt() {
+            return createdAt;
+        }
+
+        public String getString() {
+            return string;
+        }
+
+        public int getNumber() {
+            return number;
+        }
+
+        // as if the string were not shared with other rows, two bytes per char
+        private int estimatedBytes() {
+            return ENTRY_OVERHEAD_BYTES + (string != null ? 40 + 2 * string.length() : 0);
+        }
+    }
+
+    private final Cache<UUID, CachedRow> cache;
+    private final long maxBytes;
+    private final long ttlMillis;
+
+    /**
+     * @param maxBytes  evict rows once their estimated size exceeds this
+     * @param ttlMillis expire rows this long after they were written
+     */
+    public RowCache(long maxBytes, long ttlMillis) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID id, CachedRow row) -> row.estimatedBytes())
+                .expireAfterWrite(ttlMillis, TimeUnit.MILLISECONDS)
+                .recordStats()
+                .build();
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * @return null unless the options enable the cache
+     */
+    public static RowCache fromOptions(ConnectionOptions options) {
+        if (options.getRowCacheBytes() <= 0) {
+            return null;
+        }
+        return new RowCache(options.getRowCacheBytes(), options.getRowCacheTtl());
+    }
+
+    /**
+     * Cache a row that was just written.
+     */
+    public void put(UUID id, Instant createdAt, String string, int number) {
+        cache.put(id, new CachedRow(createdAt, string, number));
+    }
+
+    /**
+     * Hand the cached rows of {@code ids} to {@code onHit}.
+     *
+     * @return the ids that are not cached, in the order given
+     */
+    public List<UUID> serve(List<UUID> ids, Consumer<CachedRow> onHit) {
+        // a read with no hits hands back the ids it was given, nothing is copied
+        List<UUID> misses = null;
+        for (int i = 0; i < ids.size(); i++) {
+            CachedRow row = cache.getIfPresent(ids.get(i));
+            if (row != null) {
+                if (misses == null) {
+                    misses = new ArrayList<>(ids.subList(0, i));
+                }
+                onHit.accept(row);
+            } else if (misses != null) {
+                misses.add(ids.get(i));
+            }
+        }
+        if (misses == null) {
+            return ids;
+        }
+        return misses.isEmpty() ? Collections.emptyList() : misses;
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long getEntries() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Estimated heap used by the cached rows, in bytes.
+     */
+    public long getEstimatedBytes() {
+        // apply pending writes and evictions, Caffeine catches up on them asynchronously
+        cache.cleanUp();
+        Optional<Policy.Eviction<UUID, CachedRow>> eviction = cache.policy().eviction();
+        return eviction.isPresent() ? eviction.get().weightedSize().orElse(0) : 0;
+    }
+
+    /**
+     * Describe the cache settings, reported with its statistics.
+     */
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "max %d MB, ttl %d s", maxBytes / (1024 * 1024), TimeUnit.MILLISECONDS.toSeconds(ttlMillis));
+    }
+}
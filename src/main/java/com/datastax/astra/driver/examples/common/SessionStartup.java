@@ -0,0 +1,222 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.CqlSessionBuilder;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.loadbalancing.NodeDistance;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.NodeState;
+import com.datastax.oss.driver.internal.core.config.cloud.CloudConfig;
+import com.datastax.oss.driver.internal.core.config.cloud.CloudConfigFactory;
+import com.datastax.oss.driver.internal.core.config.typesafe.DefaultDriverConfigLoader;
+import com.datastax.oss.driver.internal.core.config.typesafe.DefaultProgrammaticDriverConfigLoaderBuilder;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import com.datastax.oss.driver.shaded.guava.common.base.Joiner;
+import com.typesafe.config.ConfigFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Opens a session in separately timed phases so slow starts can be attributed:
+ * <ul>
+ *   <li>{@code scb}: parsing the secure connect bundle</li>
+ *   <li>{@code connect}: control connection, node discovery and connection pools</li>
+ *   <li>{@code schema}: fetching schema metadata, which is deferred until after connect</li>
+ *   <li>{@code prepare}: preparing the registered statements</li>
+ *   <li>{@code warmup}: optionally sending a request over every pooled connection</li>
+ * </ul>
+ * The session is only handed out once all phases have finished, so the first application request does not pay for
+ * any of them. Several startups can run concurrently, e.g. one per region.
+ */
+public class SessionStartup {
+    private static final Logger LOG = LoggerFactory.getLogger(SessionStartup.class);
+
+    private static final SimpleStatement WARMUP = SimpleStatement.newInstance("SELECT release_version FROM system.local").setIdempotent(true);
+
+    private final String name;
+    private final CqlSessionBuilder builder;
+    private final Path secureConnectBundle;
+    private final String configResource;
+    private PreparedStatementRegistry statements;
+    private boolean warmPool;
+    private int metricsPort = -1;
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    /**
+     * @param builder             session builder, without secure connect bundle or config loader
+     * @param secureConnectBundle bundle to connect with, null if the builder already has contact points
+     * @param configResource      classpath resource holding the driver configuration, e.g. astra.conf
+     */
+    public SessionStartup(String name, CqlSessionBuilder builder, Path secureConnectBundle, String configResource) {
+        this.name = name;
+        this.builder = builder;
+        this.secureConnectBundle = secureConnectBundle;
+        this.configResource = configResource;
+    }
+
+    /**
+     * Prepare {@code statements} before handing out the session. Failures (e.g. table not created yet) are logged
+     * and the statements are simply prepared on first use instead. The registry also listens for schema changes on
+     * the session.
+     */
+    public SessionStartup withPreparedStatements(PreparedStatementRegistry statements) {
+        this.statements = statements;
+        builder.addSchemaChangeListener(statements);
+        return this;
+    }
+
+    public SessionStartup withPoolWarmup(boolean warmPool) {
+        this.warmPool = warmPool;
+        return this;
+    }
+
+    /**
+     * Export the session's metrics once it has started, see {@link DriverMetricsExporter}.
+     *
+     * @param metricsPort where to serve them for Prometheus, 0 for JMX only
+     */
+    public SessionStartup withMetricsPort(int metricsPort) {
+        this.metricsPort = metricsPort;
+        return this;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Time taken by each phase of the last startup, in milliseconds.
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    public CompletionStage<CqlSession> startAsync() {
+        synchronized (timings) {
+            timings.clear();
+        }
+        long start = System.nanoTime();
+        return CompletableFuture
+                .supplyAsync(() -> timed("scb", () -> {
+                    if (secureConnectBundle != null) {
+                        applyCloudConfig(parseSecureConnectBundle());
+                    }
+                    return builder.withConfigLoader(configLoader(name, configResource));
+                }))
+                .thenCompose(b -> timedAsync("connect", b::buildAsync))
+                .thenCompose(this::initialize)
+                .whenComplete((session, t) -> {
+                    timings.put("total", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                    if (t == null) {
+                        if (metricsPort >= 0) {
+                            DriverMetricsExporter.export(session, metricsPort);
+                        }
+                        LOG.info("{} session started: {}", name, Joiner.on(' ').withKeyValueSeparator("=").join(getTimings()) + " ms");
+                    }
+                });
+    }
+
+    // the phases after connecting; if one fails the session is closed before the failure is passed on, otherwise
+    // every failed attempt, e.g. of the failover probe, would leave a connected session behind
+    private CompletionStage<CqlSession> initialize(CqlSession session) {
+        return timedAsync("schema", () -> session.setSchemaMetadataEnabled(true))
+                .thenCompose(m -> timedAsync("prepare", () -> prepare(session)))
+                .thenCompose(v -> warmPool ? timedAsync("warmup", () -> warmup(session)) : CompletableFuture.<Void>completedFuture(null))
+                .handle((v, t) -> t == null
+                        ? CompletableFuture.completedFuture(session)
+                        : session.closeAsync().handle((c, closeError) -> session)
+                                .thenCompose(s -> CompletableFutures.<CqlSession>failedFuture(t)))
+                .thenCompose(f -> f);
+    }
+
+    // schema metadata is disabled for the initial connection so its cost is measured as a phase of its own, it is
+    // enabled on the session straight after connecting; the session is named after the startup, in logs and metrics
+    private static DriverConfigLoader configLoader(String name, String configResource) {
+        return new DefaultProgrammaticDriverConfigLoaderBuilder(
+                () -> ConfigFactory.defaultOverrides()
+                        .withFallback(ConfigFactory.parseResourcesAnySyntax(configResource))
+                        .withFallback(ConfigFactory.defaultReference(CqlSession.class.getClassLoader())),
+                DefaultDriverConfigLoader.DEFAULT_ROOT_PATH)
+                .withBoolean(DefaultDriverOption.METADATA_SCHEMA_ENABLED, false)
+                .withString(DefaultDriverOption.SESSION_NAME, name)
+                .build();
+    }
+
+    private CloudConfig parseSecureConnectBundle() {
+        try {
+            return new CloudConfigFactory().createCloudConfig(secureConnectBundle.toAbsolutePath().normalize().toUri().toURL());
+        } catch (Exception e) {
+            throw new CompletionException("failed to read secure connect bundle " + secureConnectBundle, e);
+        }
+    }
+
+    // same settings the session builder derives from a bundle itself, applied here so parsing can be timed apart
+    private void applyCloudConfig(CloudConfig cloudConfig) {
+        builder.addContactEndPoints(cloudConfig.getEndPoints())
+                .withLocalDatacenter(cloudConfig.getLocalDatacenter())
+                .withSslEngineFactory(cloudConfig.getSslEngineFactory())
+                .withCloudProxyAddress(cloudConfig.getProxyAddress());
+    }
+
+    /**
+     * Prepare the registered statements on {@code session}, e.g. again after failing over to it.
+     * Never fails, statements that could not be prepared are retried on first use.
+     */
+    public CompletionStage<Void> prepare(CqlSession session) {
+        if (statements == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return statements.prepareAll(session).handle((v, t) -> {
+            if (t != null) {
+                LOG.warn("{} session: failed to prepare statements: {}", name, t.toString());
+            }
+            return null;
+        });
+    }
+
+    private CompletionStage<Void> warmup(CqlSession session) {
+        int poolSize = session.getContext().getConfig().getDefaultProfile().getInt(DefaultDriverOption.CONNECTION_POOL_LOCAL_SIZE);
+        List<CompletionStage<AsyncResultSet>> requests = new ArrayList<>();
+        for (Node node : session.getMetadata().getNodes().values()) {
+            if (node.getState() != NodeState.UP || node.getDistance() != NodeDistance.LOCAL) {
+                continue;
+            }
+            // concurrent requests are spread over the node's connections, so each of them carries traffic once
+            for (int i = 0; i < poolSize; i++) {
+                requests.add(session.executeAsync(WARMUP.setNode(node)));
+            }
+        }
+        return CompletableFutures.allDone(requests);
+    }
+
+    private <T> T timed(String phase, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            timings.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private <T> CompletionStage<T> timedAsync(String phase, Supplier<? extends CompletionStage<T>> action) {
+        long start = System.nanoTime();
+        return action.get().whenComplete((v, t) -> timings.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+}
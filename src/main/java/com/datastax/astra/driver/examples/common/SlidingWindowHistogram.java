@@ -0,0 +1,67 @@
+package com.datastax.astra.driver.examples.common;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency histogram over the last {@code intervals} calls to {@link #rotate()}, older samples drop out as the window
+ * slides. Recording is wait-free; percentiles are read from the window as of the last rotation so they are cheap
+ * enough to consult on the request path.
+ */
+public class SlidingWindowHistogram {
+
+    private final Recorder recorder = new Recorder(3);
+    private final Histogram[] intervals;
+    // sum of all histograms in intervals, values in microseconds
+    private final Histogram window = new Histogram(3);
+    private int next;
+
+    public SlidingWindowHistogram(int intervals) {
+        this.intervals = new Histogram[intervals];
+    }
+
+    public void recordNanos(long nanos) {
+        recorder.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Close the current interval, adding it to the window and dropping the oldest one.
+     */
+    public synchronized void rotate() {
+        Histogram latest = recorder.getIntervalHistogram();
+        Histogram evicted = intervals[next];
+        intervals[next] = latest;
+        next = (next + 1) % intervals.length;
+        if (evicted != null) {
+            window.subtract(evicted);
+        }
+        window.add(latest);
+    }
+
+    public synchronized long getTotalCount() {
+        return window.getTotalCount();
+    }
+
+    public synchronized long getValueAtPercentileNanos(double percentile) {
+        return TimeUnit.MICROSECONDS.toNanos(window.getValueAtPercentile(percentile));
+    }
+
+    /**
+     * Mean of the recorded values above {@code thresholdNanos}, or the threshold itself if there are none.
+     */
+    public synchronized long getMeanAboveNanos(long thresholdNanos) {
+        long threshold = TimeUnit.NANOSECONDS.toMicros(thresholdNanos);
+        long count = 0;
+        double total = 0;
+        for (HistogramIterationValue value : window.recordedValues()) {
+            if (value.getValueIteratedTo() > threshold) {
+                count += value.getCountAtValueIteratedTo();
+                total += (double) value.getValueIteratedTo() * value.getCountAtValueIteratedTo();
+            }
+        }
+        return count == 0 ? thresholdNanos : TimeUnit.MICROSECONDS.toNanos((long) (total / count));
+    }
+}
@@ -0,0 +1,276 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import com.datastax.oss.driver.api.core.data.ByteUtils;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.schema.ColumnMetadata;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reads a whole table by splitting the token ring into ranges and scanning {@code concurrency} of them at a time,
+ * one {@code SELECT * FROM table WHERE token(pk) > ? AND token(pk) <= ?} per range, paged with
+ * {@link AsyncResultSet#fetchNextPage()}. Page size is the driver's {@code request.page-size}.
+ * <p>
+ * Rows are handed to the sink on a pool of {@code threads} threads, never on the driver's I/O threads, and the next
+ * page of a range is only requested once the sink has taken every row of the current one. A slow sink therefore slows
+ * the scan down instead of piling up pages: at most {@code concurrency} pages are held at once.
+ * <p>
+ * Each range remembers the paging state of the last page it handed over. A page that fails is retried from there,
+ * and a range that still fails is reported as unfinished with that state so it can be scanned again later without
+ * handing the same rows over twice, see {@link #format} and {@link #parse}. Every page is recorded as
+ * {@link OperationType#SCAN_PAGE}, and progress is logged every {@code reportIntervalSeconds}.
+ */
+public class TokenRangeScanner {
+    private static final Logger LOG = LoggerFactory.getLogger(TokenRangeScanner.class);
+
+    private static final String SCAN_RANGE = "scan-range";
+    private static final String SCAN_FROM = "scan-from";
+
+    /**
+     * A token range of the table and how far its scan got.
+     */
+    public static class Split {
+        private final TokenRange range;
+        private volatile ByteBuffer pagingState;
+        private volatile long rows;
+        private volatile Throwable error;
+
+        Split(TokenRange range, ByteBuffer pagingState) {
+            this.range = range;
+            this.pagingState = pagingState;
+        }
+
+        public TokenRange getRange() {
+            return range;
+        }
+
+        /**
+         * Where to resume the scan of this range, null to start from its beginning.
+         */
+        public ByteBuffer getPagingState() {
+            return pagingState;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Why the scan of this range stopped, null if it completed.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        @Override
+        public String toString() {
+            return "(" + range.getStart() + ", " + range.getEnd() + "]";
+        }
+    }
+
+    private final CqlSession session;
+    private final RetryExecutor retry;
+    private final PreparedStatementRegistry statements;
+    private final int concurrency;
+    private final int threads;
+    private final long reportIntervalSeconds;
+    private final LongAdder rows = new LongAdder();
+
+    /**
+     * @param partitionKey comma separated partition key columns, null to read them from the schema metadata
+     * @param retry        retries failed pages and records their latency
+     * @param concurrency  ranges scanned at the same time
+     * @param threads      threads calling the sink
+     */
+    public TokenRangeScanner(CqlSession session, String table, String partitionKey, RetryExecutor retry,
+                             int concurrency, int threads, long reportIntervalSeconds) {
+        if (concurrency < 1 || threads < 1) {
+            throw new IllegalArgumentException("concurrency and threads must be at least 1");
+        }
+        this.session = session;
+        this.retry = retry;
+        this.concurrency = concurrency;
+        this.threads = threads;
+        this.reportIntervalSeconds = reportIntervalSeconds;
+        String token = "token(" + (partitionKey != null ? partitionKey : partitionKeyOf(session, table)) + ")";
+        // the end of the ring is the minimum token, so the last range of the ring has no upper bound
+        this.statements = new PreparedStatementRegistry(table)
+                .register(SCAN_RANGE, "SELECT * FROM %s WHERE " + token + " > ? AND " + token + " <= ?", true)
+                .register(SCAN_FROM, "SELECT * FROM %s WHERE " + token + " > ?", true);
+    }
+
+    private static String partitionKeyOf(CqlSession session, String table) {
+        CqlIdentifier keyspace = session.getKeyspace()
+                .orElseThrow(() -> new IllegalArgumentException("No keyspace, cannot look up the partition key of " + table));
+        return session.getMetadata().getKeyspace(keyspace)
+                .flatMap(k -> k.getTable(table))
+                .map(t -> t.getPartitionKey().stream().map(ColumnMetadata::getName).map(name -> name.asCql(true)).collect(Collectors.joining(", ")))
+                .orElseThrow(() -> new IllegalArgumentException("No schema metadata for " + table + ", pass its partition key"));
+    }
+
+    private TokenMap tokenMap() {
+        return session.getMetadata().getTokenMap()
+                .orElseThrow(() -> new IllegalStateException("The driver has no token metadata, cannot split the ring"));
+    }
+
+    /**
+     * Split the whole ring into at least {@code splits} ranges, following the ranges owned by each node.
+     */
+    public List<Split> split(int splits) {
+        TokenMap tokenMap = tokenMap();
+        List<TokenRange> ranges = new ArrayList<>(tokenMap.getTokenRanges());
+        // a single range is the whole ring, which cannot be scanned without being split at least once
+        int perRange = Math.max(ranges.size() == 1 ? 2 : 1, (splits + ranges.size() - 1) / ranges.size());
+        List<Split> result = new ArrayList<>();
+        for (TokenRange range : ranges) {
+            for (TokenRange part : range.splitEvenly(perRange)) {
+                for (TokenRange unwrapped : part.unwrap()) {
+                    result.add(new Split(unwrapped, null));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * One line describing an unfinished split: its start and end token, and its paging state if it got anywhere.
+     */
+    public String format(Split split) {
+        TokenMap tokenMap = tokenMap();
+        String line = tokenMap.format(split.range.getStart()) + " " + tokenMap.format(split.range.getEnd());
+        ByteBuffer state = split.pagingState;
+        return state == null ? line : line + " " + ByteUtils.toHexString(state);
+    }
+
+    public Split parse(String line) {
+        TokenMap tokenMap = tokenMap();
+        String[] fields = line.trim().split("\\s+");
+        if (fields.length < 2 || fields.length > 3) {
+            throw new IllegalArgumentException("Expected 'start end [pagingState]', got '" + line + "'");
+        }
+        TokenRange range = tokenMap.newTokenRange(tokenMap.parse(fields[0]), tokenMap.parse(fields[1]));
+        return new Split(range, fields.length == 3 ? ByteUtils.fromHexString(fields[2]) : null);
+    }
+
+    /**
+     * Scan {@code splits} and wait until every one of them has completed or failed.
+     *
+     * @param sink called with every row, from several threads at once
+     * @return the splits that could not be completed, empty if the whole scan succeeded
+     */
+    public List<Split> scan(List<Split> splits, Consumer<Row> sink) {
+        PreparedStatement range = CompletableFutures.getUninterruptibly(statements.prepare(session, SCAN_RANGE));
+        PreparedStatement from = CompletableFutures.getUninterruptibly(statements.prepare(session, SCAN_FROM));
+
+        ExecutorService sinkThreads = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "scan-sink");
+            t.setDaemon(true);
+            return t;
+        });
+        AtomicInteger done = new AtomicInteger();
+        long startNanos = System.nanoTime();
+        ScheduledExecutorService reporter = null;
+        if (reportIntervalSeconds > 0) {
+            reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "scan-progress");
+                t.setDaemon(true);
+                return t;
+            });
+            long[] last = {System.nanoTime(), 0};
+            reporter.scheduleAtFixedRate(() -> {
+                long now = System.nanoTime();
+                long total = rows.sum();
+                LOG.info(String.format(Locale.ROOT, "Scanned %d/%d ranges, %d rows, %.0f rows/s",
+                        done.get(), splits.size(), total, (total - last[1]) / ((now - last[0]) / 1e9)));
+                last[0] = now;
+                last[1] = total;
+            }, reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        }
+        try {
+            new AsyncWorkloadRunner(concurrency).run(splits.size(), (i, intendedStart) -> {
+                Split split = splits.get((int) i);
+                BoundStatement statement = split.range.getEnd().compareTo(split.range.getStart()) <= 0
+                        ? from.bind().setToken(0, split.range.getStart())
+                        : range.bind().setToken(0, split.range.getStart()).setToken(1, split.range.getEnd());
+                return fetch(split, statement, null)
+                        .thenComposeAsync(rs -> consume(split, statement, rs, sink, sinkThreads), sinkThreads)
+                        .handle((r, t) -> {
+                            if (t != null) {
+                                split.error = AsyncWorkloadRunner.unwrap(t);
+                                LOG.warn("Scan of range {} failed after {} rows, it can be resumed", split, split.rows, split.error);
+                            }
+                            done.incrementAndGet();
+                            return null;
+                        });
+            });
+        } finally {
+            if (reporter != null) {
+                reporter.shutdownNow();
+            }
+            sinkThreads.shutdown();
+        }
+
+        List<Split> unfinished = splits.stream().filter(s -> s.error != null).collect(Collectors.toList());
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long scanned = splits.stream().mapToLong(Split::getRows).sum();
+        LOG.info(String.format(Locale.ROOT, "Scanned %d rows from %d ranges in %.1f s (%.0f rows/s), %d ranges unfinished",
+                scanned, splits.size(), seconds, scanned / seconds, unfinished.size()));
+        return unfinished;
+    }
+
+    // the next page of a range: the first attempt continues the previous page, retries resume from the last paging state
+    private CompletionStage<AsyncResultSet> fetch(Split split, BoundStatement statement, AsyncResultSet previous) {
+        boolean[] first = {true};
+        return retry.executeAsync(() -> {
+            boolean next = first[0] && previous != null;
+            first[0] = false;
+            return next ? previous.fetchNextPage() : session.executeAsync(statement.setPagingState(split.pagingState));
+        }, OperationType.SCAN_PAGE, System.nanoTime(), split);
+    }
+
+    private CompletionStage<Void> consume(Split split, BoundStatement statement, AsyncResultSet rs, Consumer<Row> sink, ExecutorService sinkThreads) {
+        int count = rs.remaining();
+        for (Row row : rs.currentPage()) {
+            sink.accept(row);
+        }
+        split.rows += count;
+        rows.add(count);
+        if (!rs.hasMorePages()) {
+            split.pagingState = null;
+            return CompletableFuture.completedFuture(null);
+        }
+        split.pagingState = rs.getExecutionInfo().getPagingState();
+        return fetch(split, statement, rs)
+                .thenComposeAsync(next -> consume(split, statement, next, sink, sinkThreads), sinkThreads);
+    }
+
+    /**
+     * Rows handed to the sink so far.
+     */
+    public long getRows() {
+        return rows.sum();
+    }
+}
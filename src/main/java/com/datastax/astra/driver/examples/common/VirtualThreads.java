@@ -0,0 +1,25 @@
+package com.datastax.astra.driver.examples.common;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Virtual threads, when the JVM has them. This is the Java 8 version, which never does: built on Java 21, the
+ * {@code jdk21} profile makes the jar multi-release and its {@code src/main/java21} version of this class replaces
+ * this one on Java 21 and later. Both versions must keep the same public methods.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * An executor that starts a new virtual thread for each task.
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String name) {
+        throw new UnsupportedOperationException("Virtual threads need Java 21 and running from the jar built with it by the jdk21 profile");
+    }
+}
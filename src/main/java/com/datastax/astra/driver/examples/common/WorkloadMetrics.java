@@ -0,0 +1,294 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency metrics for a workload run.
+ * Prints an interval report every {@code reportInterval} seconds while running and, when closed, a summary of the
+ * whole run. Both include the heap bytes allocated per completed request, so allocation regressions on the hot path
+ * show up next to the latency they cause. The summary can also be written as CSV and the interval histograms as an
+ * HdrHistogram log so that runs can be compared between builds.
+ */
+public class WorkloadMetrics implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkloadMetrics.class);
+
+    private final Map<OperationType, OperationMetrics> operations = new EnumMap<>(OperationType.class);
+    // how late open-loop iterations were sent compared with their scheduled start, in microseconds
+    private final Recorder scheduleLag = new Recorder(3);
+    private final Histogram totalScheduleLag = new Histogram(3);
+    private final ScheduledExecutorService scheduler;
+    private final String summaryFile;
+    private final HistogramLogWriter hdrLog;
+    private final long startMillis = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private long lastReportNanos = startNanos;
+    private final AllocationMeter allocation = new AllocationMeter();
+    private final long startAllocatedBytes = allocation.getAllocatedBytes();
+    private long lastAllocatedBytes = startAllocatedBytes;
+    private volatile boolean virtualThreads;
+    private long totalRequests;
+    // statements per group written by the WriteBatcher, and how many groups were written because they lingered
+    private volatile String batching;
+    private final Recorder batchSizes = new Recorder(3);
+    private final Histogram totalBatchSizes = new Histogram(3);
+    private final LongAdder lingeredBatches = new LongAdder();
+    private long reportedLingeredBatches;
+    private long totalLingeredBatches;
+    // hits, misses and evictions of the client-side row cache, if there is one
+    private volatile RowCache rowCache;
+    private CacheStats reportedCacheStats = CacheStats.empty();
+    // log events lost by the LossyAsyncAppender
+    private final long startLostLogEvents = LossyAsyncAppender.getDiscarded() + LossyAsyncAppender.getDropped();
+    private long lastLostLogEvents = startLostLogEvents;
+
+    public WorkloadMetrics(long reportIntervalSeconds, String summaryFile, String hdrLogFile) {
+        for (OperationType type : OperationType.values()) {
+            operations.put(type, new OperationMetrics(type));
+        }
+        this.summaryFile = summaryFile;
+        this.hdrLog = hdrLogFile != null ? openHdrLog(hdrLogFile, startMillis) : null;
+
+        if (reportIntervalSeconds > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "metrics-reporter");
+                t.setDaemon(true);
+                return t;
+            });
+            this.scheduler.scheduleAtFixedRate(this::reportInterval, reportIntervalSeconds, reportIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    public static WorkloadMetrics fromOptions(ConnectionOptions options) {
+        WorkloadMetrics metrics = new WorkloadMetrics(options.getReportInterval(), options.getMetricsFile(), options.getHdrLogFile());
+        metrics.setVirtualThreads(options.getApi() == Operations.Api.VIRTUAL);
+        return metrics;
+    }
+
+    public OperationMetrics get(OperationType type) {
+        return operations.get(type);
+    }
+
+    public void recordScheduleLag(long nanos) {
+        scheduleLag.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    /**
+     * Describe the batching settings, reported with the batch sizes.
+     */
+    public void setBatching(String batching) {
+        this.batching = batching;
+    }
+
+    /**
+     * Whether the requests run on virtual threads. Their allocations are not attributed to any live platform thread,
+     * so the allocation lines then report n/a instead of a count that misses them.
+     */
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Report the statistics of this row cache, may be null.
+     */
+    public void setRowCache(RowCache rowCache) {
+        this.rowCache = rowCache;
+    }
+
+    public void recordBatch(int statements, boolean lingered) {
+        batchSizes.recordValue(statements);
+        if (lingered) {
+            lingeredBatches.increment();
+        }
+    }
+
+    private static HistogramLogWriter openHdrLog(String file, long startMillis) {
+        try {
+            HistogramLogWriter writer = new HistogramLogWriter(file);
+            writer.outputLogFormatVersion();
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+            return writer;
+        } catch (FileNotFoundException e) {
+            throw new IllegalArgumentException("cannot write histogram log to " + file, e);
+        }
+    }
+
+    private synchronized void reportInterval() {
+        long now = System.nanoTime();
+        double seconds = (now - lastReportNanos) / 1e9;
+        lastReportNanos = now;
+
+        long requests = 0;
+        for (OperationMetrics metrics : operations.values()) {
+            OperationMetrics.Snapshot snapshot = metrics.snapshotInterval();
+            if (metrics.getType().isRequest()) {
+                requests += snapshot.getCount() + snapshot.getErrors();
+            }
+            if (snapshot.getCount() == 0 && snapshot.getErrors() == 0 && snapshot.getRetries() == 0) {
+                continue;
+            }
+            LOG.info(format(metrics.getType(), snapshot, seconds));
+            if (hdrLog != null) {
+                Histogram histogram = snapshot.getHistogram();
+                histogram.setTag(metrics.getType().name());
+                hdrLog.outputIntervalHistogram(histogram);
+            }
+        }
+
+        Histogram lag = scheduleLag.getIntervalHistogram();
+        if (lag.getTotalCount() > 0) {
+            totalScheduleLag.add(lag);
+            LOG.info(formatLag(lag));
+        }
+
+        Histogram sizes = batchSizes.getIntervalHistogram();
+        if (sizes.getTotalCount() > 0) {
+            long lingered = lingeredBatches.sum();
+            totalBatchSizes.add(sizes);
+            totalLingeredBatches += lingered - reportedLingeredBatches;
+            LOG.info(formatBatches(sizes, lingered - reportedLingeredBatches));
+            reportedLingeredBatches = lingered;
+        }
+
+        totalRequests += requests;
+        if (allocation.isSupported() && requests > 0) {
+            long allocated = allocation.getAllocatedBytes();
+            LOG.info(virtualThreads ? formatAllocationUnknown() : formatAllocation(allocated - lastAllocatedBytes, requests, seconds));
+            lastAllocatedBytes = allocated;
+        }
+
+        RowCache cache = rowCache;
+        if (cache != null) {
+            CacheStats stats = cache.stats();
+            CacheStats interval = stats.minus(reportedCacheStats);
+            if (interval.requestCount() > 0 || interval.evictionCount() > 0) {
+                LOG.info(formatRowCache(cache, interval));
+            }
+            reportedCacheStats = stats;
+        }
+
+        long lost = LossyAsyncAppender.getDiscarded() + LossyAsyncAppender.getDropped();
+        if (lost > lastLostLogEvents) {
+            LOG.warn(formatLostLogEvents());
+            lastLostLogEvents = lost;
+        }
+    }
+
+    private static String formatRowCache(RowCache cache, CacheStats stats) {
+        return String.format(Locale.ROOT, "%-12s hit ratio=%.1f%%  hits=%d misses=%d evictions=%d  %d rows ~%.1f MB  (%s)",
+                "ROW CACHE", 100.0 * stats.hitRate(), stats.hitCount(), stats.missCount(), stats.evictionCount(),
+                cache.getEntries(), cache.getEstimatedBytes() / (1024.0 * 1024.0), cache);
+    }
+
+    private static String formatLostLogEvents() {
+        return String.format(Locale.ROOT, "%-12s discarded=%d dropped=%d since start, the log writer is behind",
+                "LOG EVENTS", LossyAsyncAppender.getDiscarded(), LossyAsyncAppender.getDropped());
+    }
+
+    private static String formatAllocation(long bytes, long requests, double seconds) {
+        return String.format(Locale.ROOT, "%-12s %10.0f bytes/op  %.1f MB/s",
+                "ALLOCATED", Math.max(0, bytes) / (double) requests, Math.max(0, bytes) / seconds / (1024 * 1024));
+    }
+
+    private static String formatAllocationUnknown() {
+        return String.format(Locale.ROOT, "%-12s n/a, allocations of virtual threads are not counted", "ALLOCATED");
+    }
+
+    private String formatBatches(Histogram sizes, long lingered) {
+        return String.format(Locale.ROOT, "%-12s mean=%.1f max=%d statements/batch  lingered=%.1f%%  (%s)",
+                "BATCHED", sizes.getMean(), sizes.getMaxValue(), 100.0 * lingered / sizes.getTotalCount(), batching);
+    }
+
+    private static String formatLag(Histogram lag) {
+        return String.format(Locale.ROOT, "%-12s p50=%.2f p99=%.2f max=%.2f ms  late sends=%.1f%%",
+                "BEHIND", lag.getValueAtPercentile(50) / 1000.0, lag.getValueAtPercentile(99) / 1000.0, lag.getMaxValue() / 1000.0,
+                // anything under a millisecond late is considered on schedule
+                100.0 * (lag.getTotalCount() - lag.getCountBetweenValues(0, 1000)) / lag.getTotalCount());
+    }
+
+    private static String format(OperationType type, OperationMetrics.Snapshot snapshot, double seconds) {
+        return String.format(Locale.ROOT,
+                "%-12s %10.1f ops/s  p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f ms  errors=%d retries=%d",
+                type, snapshot.getCount() / seconds,
+                snapshot.getPercentile(50), snapshot.getPercentile(90), snapshot.getPercentile(99),
+                snapshot.getPercentile(99.9), snapshot.getMax(),
+                snapshot.getErrors(), snapshot.getRetries());
+    }
+
+    /**
+     * Stop interval reporting, then log and write the summary of the whole run.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        // flush whatever was recorded since the last interval into the totals
+        reportInterval();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        StringBuilder csv = new StringBuilder("operation,count,errors,retries,ops_per_s,mean_ms,p50_ms,p90_ms,p99_ms,p999_ms,max_ms\n");
+        LOG.info("Summary over {} s", String.format(Locale.ROOT, "%.1f", seconds));
+        for (OperationMetrics metrics : operations.values()) {
+            OperationMetrics.Snapshot total = metrics.snapshotTotal();
+            if (total.getCount() == 0 && total.getErrors() == 0 && total.getRetries() == 0) {
+                continue;
+            }
+            LOG.info(format(metrics.getType(), total, seconds));
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f\n",
+                    metrics.getType(), total.getCount(), total.getErrors(), total.getRetries(), total.getCount() / seconds,
+                    total.getHistogram().getMean() / 1000.0, total.getPercentile(50), total.getPercentile(90),
+                    total.getPercentile(99), total.getPercentile(99.9), total.getMax()));
+        }
+        if (totalScheduleLag.getTotalCount() > 0) {
+            LOG.info(formatLag(totalScheduleLag));
+        }
+        if (totalBatchSizes.getTotalCount() > 0) {
+            LOG.info(formatBatches(totalBatchSizes, totalLingeredBatches));
+        }
+        if (allocation.isSupported() && totalRequests > 0) {
+            LOG.info(virtualThreads ? formatAllocationUnknown()
+                    : formatAllocation(allocation.getAllocatedBytes() - startAllocatedBytes, totalRequests, seconds));
+        }
+        RowCache cache = rowCache;
+        if (cache != null && cache.stats().requestCount() > 0) {
+            LOG.info(formatRowCache(cache, cache.stats()));
+        }
+        if (LossyAsyncAppender.getDiscarded() + LossyAsyncAppender.getDropped() > startLostLogEvents) {
+            LOG.warn(formatLostLogEvents());
+        }
+
+        if (hdrLog != null) {
+            hdrLog.close();
+        }
+        if (summaryFile != null) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(summaryFile), StandardCharsets.UTF_8))) {
+                out.print(csv);
+            } catch (IOException e) {
+                LOG.error("failed to write metrics summary to '{}'", summaryFile, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatementBuilder;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.api.core.uuid.Uuids;
+import com.datastax.oss.driver.internal.core.util.concurrent.CompletableFutures;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A workload read from a HOCON file instead of the hard-coded demo: tables with generated column values, and a mix
+ * of inserts and reads, each with its own share of the requests and its own key distribution. See
+ * {@code src/main/resources/workloads} for examples.
+ * <p>
+ * Each table has a partition key column (bigint, int, text or uuid) derived from the keys drawn by
+ * {@link KeyDistribution}, so a skewed distribution makes for hot partitions. Text and blob values are generated
+ * up-front within their size range and picked at random, blobs being slices of one shared buffer; other values are
+ * drawn per row. Values are bound with typed setters, which keeps the per-request allocations down to the statement
+ * itself.
+ */
+public class WorkloadProfile {
+    private static final Logger LOG = LoggerFactory.getLogger(WorkloadProfile.class);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z][A-Za-z0-9_]*");
+    private static final String INSERT = "insert";
+    private static final String READ = "read";
+
+    /**
+     * What an operation of the mix does with the key it draws.
+     */
+    public enum Kind {
+        // write a row with newly generated values
+        INSERT(OperationType.INSERT),
+        // read the partition back
+        READ(OperationType.SELECT);
+
+        private final OperationType type;
+
+        Kind(OperationType type) {
+            this.type = type;
+        }
+    }
+
+    private final String name;
+    private final List<Table> tables;
+    private final Operation[] operations;
+    // running total of the operations' ratios, for picking one
+    private final double[] cumulativeRatios;
+
+    WorkloadProfile(String name, List<Table> tables, List<Operation> operations) {
+        if (operations.isEmpty()) {
+            throw new IllegalArgumentException("workload '" + name + "' has no operations");
+        }
+        this.name = name;
+        this.tables = tables;
+        this.operations = operations.toArray(new Operation[0]);
+        this.cumulativeRatios = new double[this.operations.length];
+        double total = 0;
+        for (int i = 0; i < this.operations.length; i++) {
+            total += this.operations[i].ratio;
+            cumulativeRatios[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("workload '" + name + "' has no operation with a positive ratio");
+        }
+    }
+
+    /**
+     * @param file a HOCON file, or a classpath resource such as {@code workloads/hot-partitions.conf}
+     */
+    public static WorkloadProfile load(String file) {
+        Config config = new File(file).isFile() ? ConfigFactory.parseFile(new File(file)) : ConfigFactory.parseResourcesAnySyntax(file);
+        if (!config.hasPath("workload")) {
+            throw new IllegalArgumentException("No workload defined in '" + file + "'");
+        }
+        return parse(file, config.resolve().getConfig("workload"));
+    }
+
+    static WorkloadProfile parse(String name, Config workload) {
+        Map<String, Table> tables = new LinkedHashMap<>();
+        Config tableConfigs = workload.getConfig("tables");
+        for (String table : new TreeSet<>(tableConfigs.root().keySet())) {
+            tables.put(table, Table.parse(identifier(table), tableConfigs.getConfig(table)));
+        }
+        List<Operation> operations = new ArrayList<>();
+        Config operationConfigs = workload.getConfig("operations");
+        for (String operation : new TreeSet<>(operationConfigs.root().keySet())) {
+            Config config = operationConfigs.getConfig(operation);
+            Table table = tables.get(config.getString("table"));
+            if (table == null) {
+                throw new IllegalArgumentException("Operation '" + operation + "' uses undefined table '" + config.getString("table") + "'");
+            }
+            KeyDistribution keys = KeyDistribution.fromConfig(config.getConfig("keys"));
+            if (table.keyType.equals("int") && keys.getCount() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Operation '" + operation + "' draws more keys than the int key of '" + table.name + "' holds");
+            }
+            operations.add(new Operation(operation, table, Kind.valueOf(config.getString("type").toUpperCase(Locale.ROOT)),
+                    config.hasPath("ratio") ? config.getDouble("ratio") : 1, keys));
+        }
+        return new WorkloadProfile(name, new ArrayList<>(tables.values()), operations);
+    }
+
+    public void run(CqlSession session, long iterations, AsyncWorkloadRunner runner, RetryExecutor retry) {
+        createTables(session, retry);
+        runner.run(iterations, (i, intendedStart) -> runOnce(session, retry, intendedStart));
+    }
+
+    public void run(CqlSession session, long iterations, BlockingWorkloadRunner runner, RetryExecutor retry) {
+        createTables(session, retry);
+        runner.run(iterations, (i, intendedStart) -> CompletableFutures.getUninterruptibly(runOnce(session, retry, intendedStart)));
+    }
+
+    private void createTables(CqlSession session, RetryExecutor retry) {
+        LOG.info("Running workload '{}': {}", name, this);
+        for (Table table : tables) {
+            LOG.debug("Creating table '{}'", table.name);
+            Operations.runWithRetries(retry, session, SimpleStatement.newInstance(table.createCql()), OperationType.CREATE_TABLE);
+            CompletableFutures.getUninterruptibly(table.statements.prepareAll(session));
+        }
+    }
+
+    CompletionStage<?> runOnce(CqlSession session, RetryExecutor retry, long intendedStart) {
+        Operation operation = pick();
+        Table table = operation.table;
+        long key = operation.keys.next();
+        CompletionStage<BoundStatement> bound = operation.kind == Kind.INSERT
+                ? table.statements.bind(session, INSERT, ps -> table.bindInsert(ps, key))
+                : table.statements.bind(session, READ, ps -> table.bindKey(ps.boundStatementBuilder(), 0, key).build());
+        return bound
+                .thenCompose(statement -> Operations.runWithRetriesAsync(retry, session, statement, operation.kind.type, intendedStart))
+                .exceptionally(t -> {
+                    if (AsyncWorkloadRunner.unwrap(t) instanceof RetryExecutor.RetryBudgetExhaustedException) {
+                        // already counted as an error, drop this iteration rather than stopping the whole run
+                        return null;
+                    }
+                    throw t instanceof CompletionException ? (CompletionException) t : new CompletionException(t);
+                });
+    }
+
+    Operation pick() {
+        double r = ThreadLocalRandom.current().nextDouble(cumulativeRatios[cumulativeRatios.length - 1]);
+        for (int i = 0; i < cumulativeRatios.length - 1; i++) {
+            if (r < cumulativeRatios[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    List<Table> getTables() {
+        return tables;
+    }
+
+    @Override
+    public String toString() {
+        double total = cumulativeRatios[cumulativeRatios.length - 1];
+        List<String> mix = new ArrayList<>();
+        for (Operation operation : operations) {
+            mix.add(String.format(Locale.ROOT, "%s %.0f%% (%s %s, keys %s)", operation.name, 100 * operation.ratio / total,
+                    operation.kind.name().toLowerCase(Locale.ROOT), operation.table.name, operation.keys));
+        }
+        return String.join(", ", mix);
+    }
+
+    static final class Operation {
+        final String name;
+        final Table table;
+        final Kind kind;
+        final double ratio;
+        final KeyDistribution keys;
+
+        Operation(String name, Table table, Kind kind, double ratio, KeyDistribution keys) {
+            if (ratio < 0) {
+                throw new IllegalArgumentException("Operation '" + name + "' has a negative ratio");
+            }
+            this.name = name;
+            this.table = table;
+            this.kind = kind;
+            this.ratio = ratio;
+            this.keys = keys;
+        }
+    }
+
+    static final class Table {
+        final String name;
+        final String keyColumn;
+        final String keyType;
+        final List<Column> columns;
+        final PreparedStatementRegistry statements;
+
+        Table(String name, String keyColumn, String keyType, List<Column> columns) {
+            this.name = name;
+            this.keyColumn = keyColumn;
+            this.keyType = keyType;
+            this.columns = columns;
+            String names = columns.stream().map(c -> ", " + c.name).collect(Collectors.joining());
+            String markers = columns.stream().map(c -> ", ?").collect(Collectors.joining());
+            // an insert overwrites the whole row and a read changes nothing, so both are safe to replay
+            this.statements = new PreparedStatementRegistry(name)
+                    .register(INSERT, "INSERT INTO %s (" + keyColumn + names + ") VALUES (?" + markers + ")", true)
+                    .register(READ, "SELECT * FROM %s WHERE " + keyColumn + " = ?", true);
+        }
+
+        static Table parse(String name, Config table) {
+            Config key = table.getConfig("key");
+            String keyType = key.getString("type").toLowerCase(Locale.ROOT);
+            if (!keyType.equals("bigint") && !keyType.equals("int") && !keyType.equals("text") && !keyType.equals("uuid")) {
+                throw new IllegalArgumentException("Table '" + name + "': key type must be bigint, int, text or uuid, got " + keyType);
+            }
+            List<Column> columns = new ArrayList<>();
+            if (table.hasPath("columns")) {
+                Config columnConfigs = table.getConfig("columns");
+                for (String column : new TreeSet<>(columnConfigs.root().keySet())) {
+                    columns.add(Column.parse(identifier(column), columnConfigs.getConfig(column)));
+                }
+            }
+            return new Table(name, identifier(key.getString("name")), keyType, columns);
+        }
+
+        String createCql() {
+            StringBuilder cql = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(name)
+                    .append(" (").append(keyColumn).append(' ').append(keyType).append(" PRIMARY KEY");
+            for (Column column : columns) {
+                cql.append(", ").append(column.name).append(' ').append(column.type);
+            }
+            return cql.append(')').toString();
+        }
+
+        BoundStatementBuilder bindKey(BoundStatementBuilder row, int index, long key) {
+            switch (keyType) {
+                case "bigint":
+                    return row.setLong(index, key);
+                case "int":
+                    return row.setInt(index, (int) key);
+                case "uuid":
+                    return row.setUuid(index, new UUID(0L, key));
+                default:
+                    return row.setString(index, Long.toString(key));
+            }
+        }
+
+        BoundStatement bindInsert(PreparedStatement insert, long key) {
+            BoundStatementBuilder row = bindKey(insert.boundStatementBuilder(), 0, key);
+            for (int i = 0; i < columns.size(); i++) {
+                columns.get(i).generator.set(row, i + 1);
+            }
+            return row.build();
+        }
+    }
+
+    /**
+     * Sets one generated value on a row being bound.
+     */
+    @FunctionalInterface
+    interface ValueGenerator {
+        void set(BoundStatementBuilder row, int index);
+    }
+
+    static final class Column {
+        // distinct text values generated per column, fewer for long values
+        private static final int MAX_POOL = 1024;
+        private static final long MAX_POOL_CHARS = 16L * 1024 * 1024;
+        private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+        final String name;
+        final String type;
+        final ValueGenerator generator;
+
+        Column(String name, String type, ValueGenerator generator) {
+            this.name = name;
+            this.type = type;
+            this.generator = generator;
+        }
+
+        /**
+         * @param column {@code { type = text, size = 100-1000 }}, size in characters or bytes for text and blob
+         */
+        static Column parse(String name, Config column) {
+            String type = column.getString("type").toLowerCase(Locale.ROOT);
+            int[] size = column.hasPath("size") ? parseSize(column.getString("size")) : new int[]{10, 10};
+            switch (type) {
+                case "text":
+                case "varchar":
+                case "ascii":
+                    return new Column(name, type, texts(size[0], size[1]));
+                case "blob":
+                    return new Column(name, type, blobs(size[0], size[1]));
+                case "int":
+                    return new Column(name, type, (row, i) -> row.setInt(i, ThreadLocalRandom.current().nextInt()));
+                case "bigint":
+                    return new Column(name, type, (row, i) -> row.setLong(i, ThreadLocalRandom.current().nextLong()));
+                case "double":
+                    return new Column(name, type, (row, i) -> row.setDouble(i, ThreadLocalRandom.current().nextDouble()));
+                case "boolean":
+                    return new Column(name, type, (row, i) -> row.setBoolean(i, ThreadLocalRandom.current().nextBoolean()));
+                case "timestamp":
+                    return new Column(name, type, (row, i) -> row.setInstant(i, Instant.now()));
+                case "uuid":
+                    return new Column(name, type, (row, i) -> row.setUuid(i, Uuids.random(ThreadLocalRandom.current())));
+                default:
+                    throw new IllegalArgumentException("Column '" + name + "': unsupported type " + type
+                            + ", expected text, varchar, ascii, blob, int, bigint, double, boolean, timestamp or uuid");
+            }
+        }
+
+        // "100" or "100-1000"
+        static int[] parseSize(String size) {
+            int dash = size.indexOf('-');
+            int min = Integer.parseInt(size.substring(0, dash < 0 ? size.length() : dash).trim());
+            int max = dash < 0 ? min : Integer.parseInt(size.substring(dash + 1).trim());
+            if (min < 0 || max < min) {
+                throw new IllegalArgumentException("Invalid size '" + size + "'");
+            }
+            return new int[]{min, max};
+        }
+
+        private static ValueGenerator texts(int min, int max) {
+            // a power of two, as many as fit in the character budget
+            int pool = Integer.highestOneBit((int) Math.max(1, Math.min(MAX_POOL, MAX_POOL_CHARS / Math.max(1, max))));
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            String[] values = new String[pool];
+            for (int v = 0; v < pool; v++) {
+                char[] chars = new char[min + random.nextInt(max - min + 1)];
+                for (int c = 0; c < chars.length; c++) {
+                    chars[c] = ALPHABET[random.nextInt(ALPHABET.length)];
+                }
+                values[v] = new String(chars);
+            }
+            return (row, i) -> row.setString(i, values[ThreadLocalRandom.current().nextInt() & (pool - 1)]);
+        }
+
+        private static ValueGenerator blobs(int min, int max) {
+            // read-only slices of one random buffer, the driver encodes a duplicate of each so they can be shared
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            byte[] shared = new byte[Math.max(2 * max, 4096)];
+            random.nextBytes(shared);
+            ByteBuffer[] values = new ByteBuffer[MAX_POOL];
+            for (int v = 0; v < values.length; v++) {
+                int length = min + random.nextInt(max - min + 1);
+                values[v] = ByteBuffer.wrap(shared, random.nextInt(shared.length - length + 1), length).slice().asReadOnlyBuffer();
+            }
+            return (row, i) -> row.setByteBuffer(i, values[ThreadLocalRandom.current().nextInt() & (MAX_POOL - 1)]);
+        }
+    }
+
+    private static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("'" + name + "' is not a valid table or column name");
+        }
+        return name;
+    }
+}
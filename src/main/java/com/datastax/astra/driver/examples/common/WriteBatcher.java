@@ -0,0 +1,238 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.CqlIdentifier;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.BatchStatement;
+import com.datastax.oss.driver.api.core.cql.BoundStatement;
+import com.datastax.oss.driver.api.core.cql.DefaultBatchType;
+import com.datastax.oss.driver.api.core.metadata.Node;
+import com.datastax.oss.driver.api.core.metadata.TokenMap;
+import com.datastax.oss.driver.api.core.metadata.token.Token;
+import com.datastax.oss.driver.api.core.metadata.token.TokenRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups inserts by the replicas of their partition key and writes each group in one go, either when it holds
+ * {@code batchSize} statements or {@code lingerMillis} after its first statement was added, whichever comes first.
+ * Grouping by replicas keeps every batch on nodes that own all of its partitions, so the coordinator does not have
+ * to forward writes to other replicas. When the driver knows the token ring but not the keyspace's replication
+ * (e.g. schema metadata disabled) statements are grouped by token range instead.
+ * <p>
+ * Statements must be idempotent, groups are retried as a whole. Every request sent is recorded as
+ * {@link OperationType#BATCH}, and each insert as {@link OperationType#INSERT} from its start until its group was
+ * written, so latency includes the time spent waiting for the group to fill.
+ */
+public class WriteBatcher implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(WriteBatcher.class);
+
+    public enum Mode {
+        // one unlogged batch per group
+        UNLOGGED,
+        // the group's statements sent concurrently as individual writes
+        PIPELINED
+    }
+
+    // group of statements whose partition has no known replicas
+    private static final Object ANY_REPLICAS = new Object();
+
+    private final CqlSession session;
+    private final RetryExecutor retry;
+    private final WorkloadMetrics metrics;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final Mode mode;
+    private final Map<Object, Group> groups = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "write-batcher");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private static class Group {
+        final Object key;
+        final List<BoundStatement> statements;
+        final List<CompletableFuture<AsyncResultSet>> results;
+        final List<Long> starts;
+        ScheduledFuture<?> linger;
+
+        Group(Object key, int batchSize) {
+            this.key = key;
+            this.statements = new ArrayList<>(batchSize);
+            this.results = new ArrayList<>(batchSize);
+            this.starts = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * @param metrics where batch sizes and insert latencies are recorded, may be null
+     */
+    public WriteBatcher(CqlSession session, RetryExecutor retry, WorkloadMetrics metrics, int batchSize, long lingerMillis, Mode mode) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batch size must be at least 1");
+        }
+        this.session = session;
+        this.retry = retry;
+        this.metrics = metrics;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.mode = mode;
+        if (metrics != null) {
+            metrics.setBatching(toString());
+        }
+    }
+
+    public static WriteBatcher fromOptions(CqlSession session, RetryExecutor retry, WorkloadMetrics metrics, ConnectionOptions options) {
+        return new WriteBatcher(session, retry, metrics, options.getBatchSize(), options.getBatchLinger(), options.getBatchMode());
+    }
+
+    /**
+     * Queue an insert, the returned stage completes once its group has been written.
+     *
+     * @param startNanos when the insert started, for its recorded latency
+     */
+    public CompletionStage<AsyncResultSet> add(BoundStatement statement, long startNanos) {
+        CompletableFuture<AsyncResultSet> result = new CompletableFuture<>();
+        Object key = groupOf(statement);
+        Group full = null;
+        synchronized (groups) {
+            Group group = groups.computeIfAbsent(key, k -> new Group(k, batchSize));
+            group.statements.add(statement);
+            group.results.add(result);
+            group.starts.add(startNanos);
+            if (group.statements.size() >= batchSize) {
+                full = detach(group);
+            } else if (group.linger == null) {
+                group.linger = scheduler.schedule(() -> flushLingering(group), lingerMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full != null) {
+            write(full, false);
+        }
+        return result;
+    }
+
+    private Object groupOf(BoundStatement statement) {
+        ByteBuffer partitionKey = statement.getRoutingKey();
+        Optional<TokenMap> tokenMap = session.getMetadata().getTokenMap();
+        if (partitionKey == null || !tokenMap.isPresent()) {
+            return ANY_REPLICAS;
+        }
+        CqlIdentifier keyspace = statement.getRoutingKeyspace() != null ? statement.getRoutingKeyspace() : session.getKeyspace().orElse(null);
+        if (keyspace != null) {
+            Set<Node> replicas = tokenMap.get().getReplicas(keyspace, partitionKey);
+            if (!replicas.isEmpty()) {
+                return replicas;
+            }
+        }
+        Token token = tokenMap.get().newToken(partitionKey);
+        for (TokenRange range : tokenMap.get().getTokenRanges()) {
+            if (range.contains(token)) {
+                return range;
+            }
+        }
+        return ANY_REPLICAS;
+    }
+
+    // must hold the lock on groups
+    private Group detach(Group group) {
+        groups.remove(group.key);
+        if (group.linger != null) {
+            group.linger.cancel(false);
+        }
+        return group;
+    }
+
+    private void flushLingering(Group group) {
+        synchronized (groups) {
+            // the group may have filled up and been written in the meantime
+            if (groups.get(group.key) != group) {
+                return;
+            }
+            detach(group);
+        }
+        write(group, true);
+    }
+
+    private void write(Group group, boolean lingered) {
+        if (metrics != null) {
+            metrics.recordBatch(group.statements.size(), lingered);
+        }
+        long start = System.nanoTime();
+        if (mode == Mode.UNLOGGED && group.statements.size() > 1) {
+            BatchStatement batch = BatchStatement.newInstance(DefaultBatchType.UNLOGGED, new ArrayList<>(group.statements))
+                    .setIdempotent(true);
+            retry.executeAsync(() -> session.executeAsync(batch), OperationType.BATCH, start, batch)
+                    .whenComplete((rs, t) -> {
+                        for (int i = 0; i < group.results.size(); i++) {
+                            complete(group.results.get(i), group.starts.get(i), rs, t);
+                        }
+                    });
+        } else {
+            for (int i = 0; i < group.statements.size(); i++) {
+                BoundStatement statement = group.statements.get(i);
+                CompletableFuture<AsyncResultSet> result = group.results.get(i);
+                long insertStart = group.starts.get(i);
+                retry.executeAsync(() -> session.executeAsync(statement), OperationType.BATCH, start, statement)
+                        .whenComplete((rs, t) -> complete(result, insertStart, rs, t));
+            }
+        }
+    }
+
+    private void complete(CompletableFuture<AsyncResultSet> result, long startNanos, AsyncResultSet rs, Throwable t) {
+        if (t == null) {
+            if (metrics != null) {
+                metrics.get(OperationType.INSERT).recordSince(startNanos);
+            }
+            result.complete(rs);
+        } else {
+            if (metrics != null) {
+                metrics.get(OperationType.INSERT).recordError();
+            }
+            result.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Write all groups now without waiting for them to fill.
+     */
+    public void flush() {
+        List<Group> pending;
+        synchronized (groups) {
+            pending = new ArrayList<>(groups.values());
+            for (Group group : pending) {
+                detach(group);
+            }
+        }
+        for (Group group : pending) {
+            write(group, true);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "batchSize=%d linger=%d ms %s", batchSize, lingerMillis, mode.name().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,213 @@
+package com.datastax.astra.driver.examples.standin;
+
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The handful of CQL statement shapes the stand-in understands, parsed with regular expressions. This is nowhere
+ * near a CQL parser: it covers the driver's own system table queries and the statements issued by the examples.
+ */
+class CqlStatement {
+    enum Kind {USE, SELECT, INSERT, CREATE_TABLE, DROP_TABLE, IGNORED}
+
+    // how a SELECT restricts the partition key, TOKEN_RANGE is token(key) > ? with an optional AND token(key) <= ?
+    enum Restriction {NONE, EQ, IN, TOKEN_RANGE}
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.DOTALL;
+    private static final String TABLE = "(?:\"?(\\w+)\"?\\.)?\"?(\\w+)\"?";
+    private static final Pattern USE = Pattern.compile("\\s*USE\\s+\"?(\\w+)\"?\\s*;?\\s*", FLAGS);
+    private static final Pattern SELECT = Pattern.compile(
+            "\\s*SELECT\\s+(.+?)\\s+FROM\\s+" + TABLE + "(?:\\s+WHERE\\s+(.+?))?(?:\\s+LIMIT\\s+\\d+)?(?:\\s+ALLOW\\s+FILTERING)?\\s*;?\\s*", FLAGS);
+    private static final Pattern INSERT = Pattern.compile(
+            "\\s*INSERT\\s+INTO\\s+" + TABLE + "\\s*\\(([^)]*)\\)\\s*VALUES\\s*\\(([^)]*)\\)(?:\\s+USING\\s+.*)?\\s*;?\\s*", FLAGS);
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "\\s*CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + TABLE + "\\s*\\((.*)\\)(?:\\s+WITH\\s+.*)?\\s*;?\\s*", FLAGS);
+    private static final Pattern DROP_TABLE = Pattern.compile("\\s*DROP\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?" + TABLE + "\\s*;?\\s*", FLAGS);
+    private static final Pattern IGNORED = Pattern.compile("\\s*(CREATE|ALTER|DROP)\\s+(KEYSPACE|INDEX|TYPE)\\s+.*", FLAGS);
+    private static final Pattern EQ = Pattern.compile("\"?(\\w+)\"?\\s*=\\s*(\\?|'[^']*'|\\S+)", FLAGS);
+    private static final Pattern IN = Pattern.compile("\"?(\\w+)\"?\\s+IN\\s+\\?", FLAGS);
+    private static final Pattern TOKEN_RANGE = Pattern.compile(
+            "TOKEN\\s*\\(\\s*\"?(\\w+)\"?\\s*\\)\\s*>\\s*\\?(\\s+AND\\s+TOKEN\\s*\\(\\s*\"?\\1\"?\\s*\\)\\s*<=\\s*\\?)?", FLAGS);
+    private static final Pattern PRIMARY_KEY = Pattern.compile("PRIMARY\\s+KEY\\s*\\(\\s*\\(?\\s*\"?(\\w+)\"?.*", FLAGS);
+    private static final Pattern COLUMN = Pattern.compile("\"?(\\w+)\"?\\s+(.+?)(\\s+PRIMARY\\s+KEY)?", FLAGS);
+
+    final String query;
+    final Kind kind;
+    final String keyspace;
+    final String table;
+    // selected (SELECT), written (INSERT) or defined (CREATE TABLE) columns, empty for SELECT *
+    final List<String> columns;
+    // CREATE TABLE only: column types and partition key
+    final List<String> types;
+    final String partitionKey;
+    // SELECT only
+    final Restriction restriction;
+    final String restrictedColumn;
+    final boolean restrictionBound;
+    // number of bind markers, i.e. values expected with the statement
+    final int bindMarkers;
+
+    private CqlStatement(String query, Kind kind, String keyspace, String table, List<String> columns, List<String> types,
+                         String partitionKey, Restriction restriction, String restrictedColumn, boolean restrictionBound, int bindMarkers) {
+        this.query = query;
+        this.kind = kind;
+        this.keyspace = keyspace == null ? null : keyspace.toLowerCase(Locale.ROOT);
+        this.table = table == null ? null : table.toLowerCase(Locale.ROOT);
+        this.columns = columns;
+        this.types = types;
+        this.partitionKey = partitionKey;
+        this.restriction = restriction;
+        this.restrictedColumn = restrictedColumn;
+        this.restrictionBound = restrictionBound;
+        this.bindMarkers = bindMarkers;
+    }
+
+    private static CqlStatement of(String query, Kind kind, String keyspace, String table, List<String> columns, int bindMarkers) {
+        return new CqlStatement(query, kind, keyspace, table, columns, Collections.emptyList(), null, Restriction.NONE, null, false, bindMarkers);
+    }
+
+    boolean isSystem() {
+        return keyspace != null && keyspace.startsWith("system");
+    }
+
+    static CqlStatement parse(String query) {
+        Matcher m;
+        if ((m = USE.matcher(query)).matches()) {
+            return of(query, Kind.USE, m.group(1), null, Collections.emptyList(), 0);
+        }
+        if ((m = SELECT.matcher(query)).matches()) {
+            return parseSelect(query, m);
+        }
+        if ((m = INSERT.matcher(query)).matches()) {
+            List<String> columns = names(m.group(3));
+            List<String> values = splitTopLevel(m.group(4));
+            if (values.size() != columns.size() || !values.stream().allMatch("?"::equals)) {
+                throw unsupported(query);
+            }
+            return of(query, Kind.INSERT, m.group(1), m.group(2), columns, columns.size());
+        }
+        if ((m = CREATE_TABLE.matcher(query)).matches()) {
+            return parseCreateTable(query, m);
+        }
+        if ((m = DROP_TABLE.matcher(query)).matches()) {
+            return of(query, Kind.DROP_TABLE, m.group(1), m.group(2), Collections.emptyList(), 0);
+        }
+        if (IGNORED.matcher(query).matches()) {
+            return of(query, Kind.IGNORED, null, null, Collections.emptyList(), 0);
+        }
+        throw unsupported(query);
+    }
+
+    private static CqlStatement parseSelect(String query, Matcher m) {
+        String selection = m.group(1).trim();
+        List<String> columns = selection.equals("*") ? Collections.emptyList() : names(selection);
+        String where = m.group(4);
+        Restriction restriction = Restriction.NONE;
+        String restricted = null;
+        boolean bound = false;
+        int bindMarkers = 0;
+        if (where != null) {
+            Matcher in = IN.matcher(where.trim());
+            Matcher eq = EQ.matcher(where.trim());
+            Matcher tokenRange = TOKEN_RANGE.matcher(where.trim());
+            if (tokenRange.matches()) {
+                restriction = Restriction.TOKEN_RANGE;
+                restricted = tokenRange.group(1).toLowerCase(Locale.ROOT);
+                bound = true;
+                bindMarkers = tokenRange.group(2) != null ? 2 : 1;
+            } else if (in.matches()) {
+                restriction = Restriction.IN;
+                restricted = in.group(1).toLowerCase(Locale.ROOT);
+                bound = true;
+                bindMarkers = 1;
+            } else if (eq.matches()) {
+                restriction = Restriction.EQ;
+                restricted = eq.group(1).toLowerCase(Locale.ROOT);
+                bound = eq.group(2).equals("?");
+                bindMarkers = bound ? 1 : 0;
+            } else if (!isSystemKeyspace(m.group(2))) {
+                throw unsupported(query);
+            }
+        }
+        return new CqlStatement(query, Kind.SELECT, m.group(2), m.group(3), columns, Collections.emptyList(), null,
+                restriction, restricted, bound, bindMarkers);
+    }
+
+    private static CqlStatement parseCreateTable(String query, Matcher m) {
+        List<String> columns = new ArrayList<>();
+        List<String> types = new ArrayList<>();
+        String partitionKey = null;
+        for (String definition : splitTopLevel(m.group(3))) {
+            Matcher pk = PRIMARY_KEY.matcher(definition);
+            Matcher column = COLUMN.matcher(definition);
+            if (pk.matches()) {
+                partitionKey = pk.group(1).toLowerCase(Locale.ROOT);
+            } else if (column.matches()) {
+                columns.add(column.group(1).toLowerCase(Locale.ROOT));
+                types.add(column.group(2));
+                if (column.group(3) != null) {
+                    partitionKey = column.group(1).toLowerCase(Locale.ROOT);
+                }
+            } else {
+                throw unsupported(query);
+            }
+        }
+        if (partitionKey == null) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID, "No PRIMARY KEY specified in " + query);
+        }
+        return new CqlStatement(query, Kind.CREATE_TABLE, m.group(1), m.group(2), columns, types, partitionKey,
+                Restriction.NONE, null, false, 0);
+    }
+
+    private static boolean isSystemKeyspace(String keyspace) {
+        return keyspace != null && keyspace.toLowerCase(Locale.ROOT).startsWith("system");
+    }
+
+    private static List<String> names(String list) {
+        List<String> names = new ArrayList<>();
+        for (String name : splitTopLevel(list)) {
+            names.add(name.replace("\"", "").toLowerCase(Locale.ROOT));
+        }
+        return names;
+    }
+
+    /**
+     * Split on commas that are not nested in parentheses or angle brackets.
+     */
+    static List<String> splitTopLevel(String list) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < list.length(); i++) {
+            char c = list.charAt(i);
+            if (c == '(' || c == '<') {
+                depth++;
+            } else if (c == ')' || c == '>') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(list.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        String last = list.substring(start).trim();
+        if (!last.isEmpty()) {
+            parts.add(last);
+        }
+        return parts;
+    }
+
+    private static StandInException unsupported(String query) {
+        return new StandInException(ProtocolConstants.ErrorCode.SYNTAX_ERROR, "Statement not supported by the stand-in: " + query);
+    }
+
+    @Override
+    public String toString() {
+        return query;
+    }
+}
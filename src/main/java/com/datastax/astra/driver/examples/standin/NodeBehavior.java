@@ -0,0 +1,181 @@
+package com.datastax.astra.driver.examples.standin;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * How a stand-in node misbehaves: how long it takes to answer and how often it drops the connection or never
+ * answers at all. Latency and faults apply to queries, prepares, executes and batches; connection handshakes are
+ * always answered at once, and system table queries are delayed but never dropped so the driver's control connection
+ * stays usable. Each connection samples from a random source of its own, seeded from the node's seed and the order
+ * in which the connection was accepted, so the sequence of delays and faults on a connection repeats from run to run.
+ * Which request meets which sample still depends on how the driver spreads its requests over the connections.
+ * <p>
+ * Can also be given as a string, see {@link #parse}.
+ */
+public class NodeBehavior {
+
+    /**
+     * Distribution of the delay before a node answers.
+     */
+    @FunctionalInterface
+    public interface Latency {
+        long sampleNanos(Random random);
+
+        static Latency none() {
+            return random -> 0;
+        }
+
+        static Latency fixed(long millis) {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(millis);
+            return random -> nanos;
+        }
+
+        static Latency uniform(long minMillis, long maxMillis) {
+            long min = TimeUnit.MILLISECONDS.toNanos(minMillis);
+            long range = TimeUnit.MILLISECONDS.toNanos(maxMillis) - min;
+            return random -> min + (long) (random.nextDouble() * range);
+        }
+
+        static Latency exponential(long meanMillis) {
+            long mean = TimeUnit.MILLISECONDS.toNanos(meanMillis);
+            return random -> (long) (-mean * Math.log(1 - random.nextDouble()));
+        }
+
+        /**
+         * Mostly {@code fast}, but {@code slowFraction} of requests take {@code slow}, the shape of a long tail.
+         */
+        static Latency bimodal(Latency fast, Latency slow, double slowFraction) {
+            return random -> random.nextDouble() < slowFraction ? slow.sampleNanos(random) : fast.sampleNanos(random);
+        }
+    }
+
+    private volatile Latency latency = Latency.none();
+    private volatile long jitterNanos;
+    private volatile double dropRate;
+    private volatile double timeoutRate;
+    private volatile long seed;
+
+    public NodeBehavior withLatency(Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Add a uniformly distributed delay of up to {@code millis} on top of the latency.
+     */
+    public NodeBehavior withJitter(long millis) {
+        this.jitterNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+        return this;
+    }
+
+    /**
+     * Fraction of requests answered by closing the connection instead.
+     */
+    public NodeBehavior withDropRate(double dropRate) {
+        this.dropRate = dropRate;
+        return this;
+    }
+
+    /**
+     * Fraction of requests that are never answered, so they time out on the client.
+     */
+    public NodeBehavior withTimeoutRate(double timeoutRate) {
+        this.timeoutRate = timeoutRate;
+        return this;
+    }
+
+    public NodeBehavior withSeed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Random source for the {@code connection}-th connection accepted by the node, not shared with other connections.
+     */
+    Random newRandom(int connection) {
+        // spread consecutive connections over the seed space, as SplittableRandom does
+        return new Random(seed + connection * 0x9E3779B97F4A7C15L);
+    }
+
+    enum Outcome {ANSWER, DROP, TIMEOUT}
+
+    Outcome sampleOutcome(Random random) {
+        double dropRate = this.dropRate;
+        double timeoutRate = this.timeoutRate;
+        if (dropRate <= 0 && timeoutRate <= 0) {
+            return Outcome.ANSWER;
+        }
+        double p = random.nextDouble();
+        return p < dropRate ? Outcome.DROP : p < dropRate + timeoutRate ? Outcome.TIMEOUT : Outcome.ANSWER;
+    }
+
+    long sampleDelayNanos(Random random) {
+        long delay = latency.sampleNanos(random);
+        long jitter = jitterNanos;
+        return jitter > 0 ? delay + (long) (random.nextDouble() * jitter) : delay;
+    }
+
+    /**
+     * Parse comma separated settings, each optional: {@code latency=MS}, {@code latency=MIN-MAX} (uniform),
+     * {@code latency=expMS} (exponential with that mean), {@code slow=MS@FRACTION} (that fraction of requests take
+     * MS instead), {@code jitter=MS}, {@code drop=RATE}, {@code timeout=RATE} and {@code seed=N}.
+     * For example {@code latency=5,jitter=2,slow=800@0.01,timeout=0.001}.
+     */
+    public static NodeBehavior parse(String spec) {
+        NodeBehavior behavior = new NodeBehavior();
+        Latency latency = Latency.none();
+        Latency slow = null;
+        double slowFraction = 0;
+        for (String setting : spec.split(",")) {
+            if (setting.trim().isEmpty()) {
+                continue;
+            }
+            String[] kv = setting.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("expected name=value in '" + setting + "'");
+            }
+            String value = kv[1].trim();
+            switch (kv[0].trim().toLowerCase(Locale.ROOT)) {
+                case "latency":
+                    latency = parseLatency(value);
+                    break;
+                case "slow":
+                    String[] at = value.split("@", 2);
+                    if (at.length != 2) {
+                        throw new IllegalArgumentException("expected slow=MS@FRACTION in '" + setting + "'");
+                    }
+                    slow = parseLatency(at[0]);
+                    slowFraction = Double.parseDouble(at[1]);
+                    break;
+                case "jitter":
+                    behavior.withJitter(Long.parseLong(value));
+                    break;
+                case "drop":
+                    behavior.withDropRate(Double.parseDouble(value));
+                    break;
+                case "timeout":
+                    behavior.withTimeoutRate(Double.parseDouble(value));
+                    break;
+                case "seed":
+                    behavior.withSeed(Long.parseLong(value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("unknown setting '" + kv[0] + "'");
+            }
+        }
+        return behavior.withLatency(slow == null ? latency : Latency.bimodal(latency, slow, slowFraction));
+    }
+
+    private static Latency parseLatency(String value) {
+        if (value.startsWith("exp")) {
+            return Latency.exponential(Long.parseLong(value.substring(3)));
+        }
+        int dash = value.indexOf('-');
+        if (dash > 0) {
+            return Latency.uniform(Long.parseLong(value.substring(0, dash)), Long.parseLong(value.substring(dash + 1)));
+        }
+        return Latency.fixed(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,387 @@
+package com.datastax.astra.driver.examples.standin;
+
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.DefaultRows;
+import com.datastax.oss.protocol.internal.response.result.Prepared;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import com.datastax.oss.protocol.internal.response.result.RowsMetadata;
+import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
+import com.datastax.oss.protocol.internal.response.result.Void;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An in-process stand-in for a Cassandra cluster, speaking just enough of native protocol v4 for the driver to
+ * connect, discover every node and run the examples' workloads against in-memory tables.
+ * <p>
+ * Each node listens on its own port of the same address, nodes share their data and prepared statements. This is
+ * not a database: there are no clustering columns, only partition key lookups and token range scans, and only scans
+ * are paged, see {@link CqlStatement} for the statements that are understood. Drivers must use protocol v4, newer
+ * versions are refused during the handshake so the driver negotiates down on its own.
+ */
+public class StandInCluster implements AutoCloseable {
+    private static final Logger LOG = LoggerFactory.getLogger(StandInCluster.class);
+
+    static final String PARTITIONER = "org.apache.cassandra.dht.Murmur3Partitioner";
+    static final String RELEASE_VERSION = "3.11.16";
+    private static final int MAX_FRAME_LENGTH = 256 * 1024 * 1024;
+
+    private final String name = "stand-in";
+    private final String datacenter;
+    private final List<StandInNode> nodes = new ArrayList<>();
+    private final UUID schemaVersion = UUID.randomUUID();
+    private final ConcurrentMap<String, StandInTable> tables = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ByteBuffer, CqlStatement> prepared = new ConcurrentHashMap<>();
+    private EventLoopGroup group;
+
+    /**
+     * @param ports one node per port on 127.0.0.1, 0 to pick a free one
+     */
+    public StandInCluster(String datacenter, int... ports) {
+        if (ports.length == 0) {
+            throw new IllegalArgumentException("at least one node is required");
+        }
+        this.datacenter = datacenter;
+        // tokens evenly spread over the Murmur3 range
+        long step = Long.MAX_VALUE / ports.length * 2;
+        for (int i = 0; i < ports.length; i++) {
+            nodes.add(new StandInNode(this, i, new InetSocketAddress("127.0.0.1", ports[i]), Long.toString(Long.MIN_VALUE + i * step)));
+        }
+    }
+
+    /**
+     * Set how nodes answer from a {@code ;} separated list of {@link NodeBehavior#parse} specs, each applying to every
+     * node or, when prefixed with {@code nodeN:}, to node N only. Later entries win, for example
+     * {@code latency=2;node1:latency=300,timeout=0.05} slows node1 down and makes it lose responses. Each node samples
+     * from its own seeded random source unless a seed is given. A read of several partitions with {@code IN} takes the
+     * longest of one delay per partition, like a coordinator waiting on the replicas of each.
+     */
+    public StandInCluster withBehavior(String spec) {
+        for (String entry : spec.split(";")) {
+            String target = null;
+            int colon = entry.indexOf(':');
+            if (colon >= 0) {
+                target = entry.substring(0, colon).trim();
+                entry = entry.substring(colon + 1);
+            }
+            boolean matched = false;
+            for (StandInNode node : nodes) {
+                if (target == null || target.equals("node" + node.getIndex())) {
+                    node.setBehavior(NodeBehavior.parse("seed=" + node.getIndex() + "," + entry));
+                    matched = true;
+                }
+            }
+            if (!matched) {
+                throw new IllegalArgumentException("no stand-in node named '" + target + "'");
+            }
+        }
+        return this;
+    }
+
+    public synchronized StandInCluster start() {
+        if (group != null) {
+            return this;
+        }
+        group = new NioEventLoopGroup(0, new DefaultThreadFactory("stand-in", true));
+        for (StandInNode node : nodes) {
+            ServerBootstrap bootstrap = new ServerBootstrap()
+                    .group(group)
+                    .channel(NioServerSocketChannel.class)
+                    .childOption(ChannelOption.TCP_NODELAY, true)
+                    .childHandler(new ChannelInitializer<SocketChannel>() {
+                        @Override
+                        protected void initChannel(SocketChannel channel) {
+                            channel.pipeline()
+                                    // frames are length-prefixed, the length is the last field of the 9 byte header
+                                    .addLast(new LengthFieldBasedFrameDecoder(MAX_FRAME_LENGTH, 5, 4, 0, 0))
+                                    .addLast(new StandInHandler(node));
+                        }
+                    });
+            node.serverChannel = bootstrap.bind(node.getAddress()).syncUninterruptibly().channel();
+            LOG.info("Stand-in {} listening on {}", node, node.getAddress());
+        }
+        return this;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (group == null) {
+            return;
+        }
+        for (StandInNode node : nodes) {
+            if (node.serverChannel != null) {
+                node.serverChannel.close().syncUninterruptibly();
+            }
+        }
+        group.shutdownGracefully(0, 1, TimeUnit.SECONDS).syncUninterruptibly();
+        group = null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getDatacenter() {
+        return datacenter;
+    }
+
+    public List<StandInNode> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+
+    public List<InetSocketAddress> getContactPoints() {
+        List<InetSocketAddress> contactPoints = new ArrayList<>();
+        for (StandInNode node : nodes) {
+            contactPoints.add(node.getAddress());
+        }
+        return contactPoints;
+    }
+
+    /**
+     * Number of rows currently stored in {@code table}, -1 if it does not exist.
+     */
+    public int getRowCount(String table) {
+        StandInTable t = tables.get(table.toLowerCase(Locale.ROOT));
+        return t == null ? -1 : t.size();
+    }
+
+    UUID getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    Prepared prepare(String query) {
+        CqlStatement statement = CqlStatement.parse(query);
+        byte[] id = md5(query);
+        List<ColumnSpec> variables = new ArrayList<>();
+        List<Integer> pkIndices = new ArrayList<>();
+        List<ColumnSpec> result = Collections.emptyList();
+        if (statement.kind == CqlStatement.Kind.INSERT) {
+            StandInTable table = table(statement);
+            for (String column : statement.columns) {
+                if (column.equals(table.getPartitionKey())) {
+                    pkIndices.add(variables.size());
+                }
+                variables.add(table.spec(column, variables.size()));
+            }
+        } else if (statement.kind == CqlStatement.Kind.SELECT && !statement.isSystem()) {
+            StandInTable table = table(statement);
+            if (statement.restriction == CqlStatement.Restriction.TOKEN_RANGE) {
+                for (int i = 0; i < statement.bindMarkers; i++) {
+                    variables.add(new ColumnSpec(table.getKeyspace(), table.getName(), "partition key token", i,
+                            RawType.PRIMITIVES.get(ProtocolConstants.DataType.BIGINT)));
+                }
+            } else if (statement.restrictionBound) {
+                RawType type = table.getType(statement.restrictedColumn);
+                if (statement.restriction == CqlStatement.Restriction.IN) {
+                    type = new RawType.RawList(type);
+                } else {
+                    pkIndices.add(0);
+                }
+                variables.add(new ColumnSpec(table.getKeyspace(), table.getName(), statement.restrictedColumn, 0, type));
+            }
+            result = selection(table, statement);
+        }
+        prepared.put(ByteBuffer.wrap(id), statement);
+        int[] pk = new int[pkIndices.size()];
+        for (int i = 0; i < pk.length; i++) {
+            pk[i] = pkIndices.get(i);
+        }
+        return new Prepared(id, null, new RowsMetadata(variables, null, pk, null),
+                result.isEmpty() ? new RowsMetadata(0, null, null, null) : new RowsMetadata(result, null, null, null));
+    }
+
+    CqlStatement getPrepared(byte[] id) {
+        return prepared.get(ByteBuffer.wrap(id));
+    }
+
+    /**
+     * @param pageSize    rows per page of a scan, no paging if 0 or less
+     * @param pagingState where the previous page of the same scan stopped, null for the first page
+     */
+    Message execute(StandInNode node, CqlStatement statement, List<ByteBuffer> values, int pageSize, ByteBuffer pagingState, String keyspace) {
+        if (values.size() != statement.bindMarkers) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID,
+                    "There were " + statement.bindMarkers + " markers(?) in CQL but " + values.size() + " values were bound");
+        }
+        switch (statement.kind) {
+            case USE:
+                return new SetKeyspace(statement.keyspace);
+            case SELECT:
+                return select(node, statement, values, pageSize, pagingState);
+            case INSERT:
+                table(statement).upsert(statement.columns, values);
+                return Void.INSTANCE;
+            case CREATE_TABLE:
+                Map<String, RawType> columns = new LinkedHashMap<>();
+                for (int i = 0; i < statement.columns.size(); i++) {
+                    columns.put(statement.columns.get(i), StandInTable.parseType(statement.types.get(i)));
+                }
+                String ks = statement.keyspace != null ? statement.keyspace : keyspace;
+                if (ks == null) {
+                    throw new StandInException(ProtocolConstants.ErrorCode.INVALID,
+                            "No keyspace has been specified. USE a keyspace, or explicitly specify keyspace.tablename");
+                }
+                tables.putIfAbsent(statement.table, new StandInTable(ks, statement.table, columns, statement.partitionKey));
+                return Void.INSTANCE;
+            case DROP_TABLE:
+                tables.remove(statement.table);
+                return Void.INSTANCE;
+            default:
+                return Void.INSTANCE;
+        }
+    }
+
+    private DefaultRows select(StandInNode node, CqlStatement statement, List<ByteBuffer> values, int pageSize, ByteBuffer pagingState) {
+        StandInTable table;
+        if (statement.isSystem()) {
+            table = statement.keyspace.equals("system") ? node.systemTable(statement.table) : null;
+            if (table == null) {
+                // schema and virtual tables are served empty, the driver then simply sees no metadata
+                return new DefaultRows(new RowsMetadata(Collections.emptyList(), null, null, null), new ArrayDeque<>());
+            }
+        } else {
+            table = table(statement);
+        }
+        List<ColumnSpec> specs = selection(table, statement);
+        int[] indices = new int[specs.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = table.indexOf(specs.get(i).name);
+        }
+        Collection<ByteBuffer[]> rows;
+        ByteBuffer nextPage = null;
+        if (!statement.isSystem() && (statement.restriction == CqlStatement.Restriction.NONE
+                || statement.restriction == CqlStatement.Restriction.TOKEN_RANGE)) {
+            // scans go through the ring in token order so they can stop at a page boundary and resume from there
+            if (statement.restriction == CqlStatement.Restriction.TOKEN_RANGE && !statement.restrictedColumn.equals(table.getPartitionKey())) {
+                throw new StandInException(ProtocolConstants.ErrorCode.INVALID,
+                        "The token function arguments must be the partition key " + table.getPartitionKey() + ": " + statement);
+            }
+            StandInTable.Page page = table.scan(bound(statement, values, 0, Long.MIN_VALUE), bound(statement, values, 1, Long.MAX_VALUE),
+                    pagingState, pageSize);
+            rows = page.rows;
+            nextPage = page.pagingState;
+        } else {
+            rows = matching(table, statement, values);
+        }
+        Queue<List<ByteBuffer>> data = new ArrayDeque<>();
+        for (ByteBuffer[] row : rows) {
+            List<ByteBuffer> projected = new ArrayList<>(indices.length);
+            for (int index : indices) {
+                projected.add(row[index] == null ? null : row[index].duplicate());
+            }
+            data.add(projected);
+        }
+        return new DefaultRows(new RowsMetadata(specs, nextPage, null, null), data);
+    }
+
+    // a bound token of a token range restriction, or the given default if the statement does not have it
+    private static long bound(CqlStatement statement, List<ByteBuffer> values, int index, long defaultValue) {
+        if (statement.restriction != CqlStatement.Restriction.TOKEN_RANGE || index >= values.size()) {
+            return defaultValue;
+        }
+        ByteBuffer value = values.get(index);
+        if (value == null || value.remaining() != 8) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID, "Invalid token bound for " + statement);
+        }
+        return value.getLong(value.position());
+    }
+
+    private static Collection<ByteBuffer[]> matching(StandInTable table, CqlStatement statement, List<ByteBuffer> values) {
+        // restrictions on system tables (e.g. key = 'local') are not evaluated, those tables are tiny anyway
+        if (statement.restriction == CqlStatement.Restriction.NONE || statement.isSystem()) {
+            return table.all();
+        }
+        if (!statement.restrictedColumn.equals(table.getPartitionKey()) || !statement.restrictionBound) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID,
+                    "Only bound partition key restrictions are supported by the stand-in: " + statement);
+        }
+        List<ByteBuffer> keys = statement.restriction == CqlStatement.Restriction.IN
+                ? decodeList(values.get(0))
+                : Collections.singletonList(values.get(0));
+        List<ByteBuffer[]> rows = new ArrayList<>(keys.size());
+        for (ByteBuffer key : keys) {
+            ByteBuffer[] row = key == null ? null : table.get(key);
+            if (row != null) {
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+
+    private static List<ColumnSpec> selection(StandInTable table, CqlStatement statement) {
+        List<String> columns = statement.columns.isEmpty() ? table.getColumnNames() : statement.columns;
+        List<ColumnSpec> specs = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            specs.add(table.spec(column, specs.size()));
+        }
+        return specs;
+    }
+
+    // a serialized list<T> in protocol v4: [int n] then n times [int length][bytes]
+    private static List<ByteBuffer> decodeList(ByteBuffer list) {
+        if (list == null) {
+            return Collections.emptyList();
+        }
+        ByteBuffer input = list.duplicate();
+        int size = input.getInt();
+        List<ByteBuffer> elements = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int length = input.getInt();
+            if (length < 0) {
+                elements.add(null);
+                continue;
+            }
+            ByteBuffer element = input.slice();
+            element.limit(length);
+            elements.add(element);
+            input.position(input.position() + length);
+        }
+        return elements;
+    }
+
+    private StandInTable table(CqlStatement statement) {
+        StandInTable table = tables.get(statement.table);
+        if (table == null) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID, "unconfigured table " + statement.table);
+        }
+        return table;
+    }
+
+    private static byte[] md5(String query) {
+        try {
+            return MessageDigest.getInstance("MD5").digest(query.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
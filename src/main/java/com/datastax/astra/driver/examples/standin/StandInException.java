@@ -0,0 +1,17 @@
+package com.datastax.astra.driver.examples.standin;
+
+/**
+ * A request the stand-in rejects, sent back to the client as an ERROR response with the given code.
+ */
+class StandInException extends RuntimeException {
+    private final int code;
+
+    StandInException(int code, String message) {
+        super(message);
+        this.code = code;
+    }
+
+    int getCode() {
+        return code;
+    }
+}
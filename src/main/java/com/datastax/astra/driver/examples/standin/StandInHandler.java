@@ -0,0 +1,188 @@
+package com.datastax.astra.driver.examples.standin;
+
+import com.datastax.oss.driver.internal.core.protocol.ByteBufPrimitiveCodec;
+import com.datastax.oss.protocol.internal.Compressor;
+import com.datastax.oss.protocol.internal.Frame;
+import com.datastax.oss.protocol.internal.FrameCodec;
+import com.datastax.oss.protocol.internal.Message;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.request.Batch;
+import com.datastax.oss.protocol.internal.request.Execute;
+import com.datastax.oss.protocol.internal.request.Options;
+import com.datastax.oss.protocol.internal.request.Prepare;
+import com.datastax.oss.protocol.internal.request.Query;
+import com.datastax.oss.protocol.internal.request.Register;
+import com.datastax.oss.protocol.internal.request.Startup;
+import com.datastax.oss.protocol.internal.response.Error;
+import com.datastax.oss.protocol.internal.response.Ready;
+import com.datastax.oss.protocol.internal.response.Supported;
+import com.datastax.oss.protocol.internal.response.error.Unprepared;
+import com.datastax.oss.protocol.internal.response.result.SetKeyspace;
+import com.datastax.oss.protocol.internal.response.result.Void;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.SimpleChannelInboundHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves one client connection to a {@link StandInNode}: decodes request frames, runs them against the cluster and
+ * writes the response back on the same stream id.
+ */
+class StandInHandler extends SimpleChannelInboundHandler<ByteBuf> {
+    private static final Logger LOG = LoggerFactory.getLogger(StandInHandler.class);
+
+    private static final int SUPPORTED_VERSION = ProtocolConstants.Version.V4;
+    private static final FrameCodec<ByteBuf> CODEC = FrameCodec.defaultServer(new ByteBufPrimitiveCodec(ByteBufAllocator.DEFAULT), Compressor.none());
+    private static final Supported SUPPORTED;
+
+    static {
+        Map<String, List<String>> options = new HashMap<>();
+        options.put("CQL_VERSION", Collections.singletonList("3.4.5"));
+        options.put("COMPRESSION", Collections.emptyList());
+        SUPPORTED = new Supported(options);
+    }
+
+    private final StandInNode node;
+    private final StandInCluster cluster;
+    // order in which the node accepted this connection
+    private final int connection;
+    // set by USE statements, scoped to this connection like on a real node
+    private String keyspace;
+    // whether the request being processed touched a non-system table, only those are subject to faults
+    private boolean userRequest;
+    // partitions read by the request being processed, more than one for SELECT ... IN
+    private int partitions;
+    // samples the behavior below, made again when the node is given a new behavior
+    private NodeBehavior sampledBehavior;
+    private Random random;
+
+    StandInHandler(StandInNode node) {
+        this.node = node;
+        this.cluster = node.getCluster();
+        this.connection = node.connections.getAndIncrement();
+    }
+
+    @Override
+    protected void channelRead0(ChannelHandlerContext ctx, ByteBuf buffer) {
+        int version = buffer.getByte(buffer.readerIndex()) & 0x7F;
+        if (version != SUPPORTED_VERSION) {
+            // same message as Cassandra so the driver retries with a lower version
+            int streamId = buffer.getShort(buffer.readerIndex() + 2);
+            write(ctx, Frame.forResponse(SUPPORTED_VERSION, streamId, null, Frame.NO_PAYLOAD, Collections.emptyList(),
+                    new Error(ProtocolConstants.ErrorCode.PROTOCOL_ERROR, "Invalid or unsupported protocol version (" + version + "); supported versions are (4/v4)")));
+            return;
+        }
+        Frame request = CODEC.decode(buffer);
+        userRequest = false;
+        partitions = 1;
+        Message response;
+        try {
+            response = process(request.message);
+        } catch (StandInException e) {
+            response = new Error(e.getCode(), e.getMessage());
+        } catch (RuntimeException e) {
+            LOG.warn("Stand-in {} failed to process {}", node, request.message, e);
+            response = new Error(ProtocolConstants.ErrorCode.SERVER_ERROR, e.toString());
+        }
+        Frame frame = Frame.forResponse(request.protocolVersion, request.streamId, null, Frame.NO_PAYLOAD, Collections.emptyList(), response);
+        if (!isRequest(request.message)) {
+            write(ctx, frame);
+            return;
+        }
+        node.requests.increment();
+        NodeBehavior behavior = node.getBehavior();
+        if (behavior != sampledBehavior) {
+            sampledBehavior = behavior;
+            random = behavior.newRandom(connection);
+        }
+        NodeBehavior.Outcome outcome = userRequest ? behavior.sampleOutcome(random) : NodeBehavior.Outcome.ANSWER;
+        long delay = behavior.sampleDelayNanos(random);
+        // the coordinator of a multi-partition read answers once the slowest partition has been read
+        for (int i = 1; i < partitions; i++) {
+            delay = Math.max(delay, behavior.sampleDelayNanos(random));
+        }
+        switch (outcome) {
+            case DROP:
+                node.dropped.increment();
+                ctx.executor().schedule(() -> ctx.close(), delay, TimeUnit.NANOSECONDS);
+                break;
+            case TIMEOUT:
+                // the request was applied, only the response is lost
+                node.timedOut.increment();
+                break;
+            default:
+                if (delay > 0) {
+                    ctx.executor().schedule(() -> write(ctx, frame), delay, TimeUnit.NANOSECONDS);
+                } else {
+                    write(ctx, frame);
+                }
+        }
+    }
+
+    private static boolean isRequest(Message message) {
+        return message instanceof Query || message instanceof Prepare || message instanceof Execute || message instanceof Batch;
+    }
+
+    private Message process(Message request) {
+        if (request instanceof Startup || request instanceof Register) {
+            return new Ready();
+        } else if (request instanceof Options) {
+            return SUPPORTED;
+        } else if (request instanceof Query) {
+            Query query = (Query) request;
+            return execute(CqlStatement.parse(query.query), query.options.positionalValues, query.options.pageSize, query.options.pagingState);
+        } else if (request instanceof Prepare) {
+            userRequest = true;
+            return cluster.prepare(((Prepare) request).cqlQuery);
+        } else if (request instanceof Execute) {
+            Execute execute = (Execute) request;
+            CqlStatement statement = cluster.getPrepared(execute.queryId);
+            if (statement == null) {
+                return new Unprepared("Prepared query not found", execute.queryId);
+            }
+            return execute(statement, execute.options.positionalValues, execute.options.pageSize, execute.options.pagingState);
+        } else if (request instanceof Batch) {
+            Batch batch = (Batch) request;
+            for (int i = 0; i < batch.queriesOrIds.size(); i++) {
+                Object queryOrId = batch.queriesOrIds.get(i);
+                CqlStatement statement = queryOrId instanceof String
+                        ? CqlStatement.parse((String) queryOrId)
+                        : cluster.getPrepared((byte[]) queryOrId);
+                if (statement == null) {
+                    return new Unprepared("Prepared query not found", (byte[]) queryOrId);
+                }
+                execute(statement, batch.values.get(i), -1, null);
+            }
+            return Void.INSTANCE;
+        }
+        throw new StandInException(ProtocolConstants.ErrorCode.PROTOCOL_ERROR, "Unsupported request " + request);
+    }
+
+    private Message execute(CqlStatement statement, List<ByteBuffer> values, int pageSize, ByteBuffer pagingState) {
+        userRequest |= !statement.isSystem();
+        if (statement.kind == CqlStatement.Kind.SELECT && statement.restriction == CqlStatement.Restriction.IN
+                && !values.isEmpty() && values.get(0) != null) {
+            // a serialized list starts with its element count
+            partitions = Math.max(partitions, values.get(0).getInt(values.get(0).position()));
+        }
+        Message result = cluster.execute(node, statement, values, pageSize, pagingState, keyspace);
+        if (result instanceof SetKeyspace) {
+            keyspace = ((SetKeyspace) result).keyspace;
+        }
+        return result;
+    }
+
+    private static void write(ChannelHandlerContext ctx, Frame response) {
+        ctx.writeAndFlush(CODEC.encode(response));
+    }
+}
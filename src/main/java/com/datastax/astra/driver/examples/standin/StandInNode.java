@@ -0,0 +1,194 @@
+package com.datastax.astra.driver.examples.standin;
+
+import com.datastax.oss.driver.api.core.ProtocolVersion;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodec;
+import com.datastax.oss.driver.api.core.type.codec.TypeCodecs;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+import io.netty.channel.Channel;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One node of a {@link StandInCluster}: a listening socket plus the node's view of the system tables.
+ */
+public class StandInNode {
+    private static final RawType TEXT = RawType.PRIMITIVES.get(ProtocolConstants.DataType.VARCHAR);
+    private static final RawType INET = RawType.PRIMITIVES.get(ProtocolConstants.DataType.INET);
+    private static final RawType INT = RawType.PRIMITIVES.get(ProtocolConstants.DataType.INT);
+    private static final RawType UUID_TYPE = RawType.PRIMITIVES.get(ProtocolConstants.DataType.UUID);
+    private static final RawType TEXT_SET = new RawType.RawSet(TEXT);
+    private static final TypeCodec<Set<String>> TEXT_SET_CODEC = TypeCodecs.setOf(TypeCodecs.TEXT);
+
+    private final StandInCluster cluster;
+    private final int index;
+    private final InetSocketAddress address;
+    private final UUID hostId = UUID.randomUUID();
+    private final String token;
+    volatile Channel serverChannel;
+    private volatile NodeBehavior behavior = new NodeBehavior();
+    final LongAdder requests = new LongAdder();
+    // connections accepted so far, each samples the node's behavior with a random source of its own
+    final AtomicInteger connections = new AtomicInteger();
+    final LongAdder dropped = new LongAdder();
+    final LongAdder timedOut = new LongAdder();
+
+    StandInNode(StandInCluster cluster, int index, InetSocketAddress address, String token) {
+        this.cluster = cluster;
+        this.index = index;
+        this.address = address;
+        this.token = token;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Address the node listens on, with the actual port once started.
+     */
+    public InetSocketAddress getAddress() {
+        Channel channel = serverChannel;
+        return channel != null ? (InetSocketAddress) channel.localAddress() : address;
+    }
+
+    public NodeBehavior getBehavior() {
+        return behavior;
+    }
+
+    /**
+     * Replace how the node answers, takes effect for the next request.
+     */
+    public StandInNode setBehavior(NodeBehavior behavior) {
+        this.behavior = behavior;
+        return this;
+    }
+
+    /**
+     * Queries, prepares, executes and batches received, including the ones dropped or left unanswered.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    StandInCluster getCluster() {
+        return cluster;
+    }
+
+    StandInTable systemTable(String table) {
+        switch (table) {
+            case "local":
+                return local();
+            case "peers_v2":
+                return peers();
+            default:
+                return null;
+        }
+    }
+
+    private StandInTable local() {
+        Map<String, RawType> columns = new LinkedHashMap<>();
+        columns.put("key", TEXT);
+        columns.put("bootstrapped", TEXT);
+        columns.put("broadcast_address", INET);
+        columns.put("cluster_name", TEXT);
+        columns.put("cql_version", TEXT);
+        columns.put("data_center", TEXT);
+        columns.put("host_id", UUID_TYPE);
+        columns.put("listen_address", INET);
+        columns.put("native_protocol_version", TEXT);
+        columns.put("partitioner", TEXT);
+        columns.put("rack", TEXT);
+        columns.put("release_version", TEXT);
+        columns.put("rpc_address", INET);
+        columns.put("rpc_port", INT);
+        columns.put("schema_version", UUID_TYPE);
+        columns.put("tokens", TEXT_SET);
+        StandInTable local = new StandInTable("system", "local", columns, "key");
+        InetAddress ip = getAddress().getAddress();
+        local.upsert(new ArrayList<>(columns.keySet()), values(
+                text("local"), text("COMPLETED"), inet(ip), text(cluster.getName()), text("3.4.5"),
+                text(cluster.getDatacenter()), uuid(hostId), inet(ip), text("4"), text(StandInCluster.PARTITIONER),
+                text("rack1"), text(StandInCluster.RELEASE_VERSION), inet(ip), integer(getAddress().getPort()),
+                uuid(cluster.getSchemaVersion()), tokens()));
+        return local;
+    }
+
+    private StandInTable peers() {
+        Map<String, RawType> columns = new LinkedHashMap<>();
+        columns.put("peer", INET);
+        columns.put("peer_port", INT);
+        columns.put("data_center", TEXT);
+        columns.put("host_id", UUID_TYPE);
+        columns.put("native_address", INET);
+        columns.put("native_port", INT);
+        columns.put("preferred_ip", INET);
+        columns.put("preferred_port", INT);
+        columns.put("rack", TEXT);
+        columns.put("release_version", TEXT);
+        columns.put("schema_version", UUID_TYPE);
+        columns.put("tokens", TEXT_SET);
+        StandInTable peers = new StandInTable("system", "peers_v2", columns, "host_id");
+        for (StandInNode peer : cluster.getNodes()) {
+            if (peer == this) {
+                continue;
+            }
+            InetSocketAddress peerAddress = peer.getAddress();
+            peers.upsert(new ArrayList<>(columns.keySet()), values(
+                    inet(peerAddress.getAddress()), integer(7000 + peer.index), text(cluster.getDatacenter()), uuid(peer.hostId),
+                    inet(peerAddress.getAddress()), integer(peerAddress.getPort()), inet(peerAddress.getAddress()), integer(7000 + peer.index),
+                    text("rack1"), text(StandInCluster.RELEASE_VERSION), uuid(cluster.getSchemaVersion()), peer.tokens()));
+        }
+        return peers;
+    }
+
+    private ByteBuffer tokens() {
+        return TEXT_SET_CODEC.encode(Collections.singleton(token), ProtocolVersion.V4);
+    }
+
+    private static List<ByteBuffer> values(ByteBuffer... values) {
+        List<ByteBuffer> list = new ArrayList<>(values.length);
+        Collections.addAll(list, values);
+        return list;
+    }
+
+    private static ByteBuffer text(String value) {
+        return TypeCodecs.TEXT.encode(value, ProtocolVersion.V4);
+    }
+
+    private static ByteBuffer inet(InetAddress value) {
+        return TypeCodecs.INET.encode(value, ProtocolVersion.V4);
+    }
+
+    private static ByteBuffer integer(int value) {
+        return TypeCodecs.INT.encode(value, ProtocolVersion.V4);
+    }
+
+    private static ByteBuffer uuid(UUID value) {
+        return TypeCodecs.UUID.encode(value, ProtocolVersion.V4);
+    }
+
+    @Override
+    public String toString() {
+        return "node" + index + "(" + getAddress() + ")";
+    }
+}
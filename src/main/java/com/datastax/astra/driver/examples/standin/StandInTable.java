@@ -0,0 +1,252 @@
+package com.datastax.astra.driver.examples.standin;
+
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3Token;
+import com.datastax.oss.driver.internal.core.metadata.token.Murmur3TokenFactory;
+import com.datastax.oss.protocol.internal.ProtocolConstants;
+import com.datastax.oss.protocol.internal.response.result.ColumnSpec;
+import com.datastax.oss.protocol.internal.response.result.RawType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * An in-memory table keyed by a single partition key column. Values are kept in their serialized form, exactly as
+ * they were bound by the client, so they are returned to readers without being decoded. Partitions are also indexed
+ * by their Murmur3 token so token range scans can be answered in ring order, one page at a time.
+ */
+class StandInTable {
+    private static final Map<String, Integer> PRIMITIVES = new HashMap<>();
+    private static final Murmur3TokenFactory TOKENS = new Murmur3TokenFactory();
+
+    static {
+        PRIMITIVES.put("ascii", ProtocolConstants.DataType.ASCII);
+        PRIMITIVES.put("bigint", ProtocolConstants.DataType.BIGINT);
+        PRIMITIVES.put("blob", ProtocolConstants.DataType.BLOB);
+        PRIMITIVES.put("boolean", ProtocolConstants.DataType.BOOLEAN);
+        PRIMITIVES.put("counter", ProtocolConstants.DataType.COUNTER);
+        PRIMITIVES.put("decimal", ProtocolConstants.DataType.DECIMAL);
+        PRIMITIVES.put("double", ProtocolConstants.DataType.DOUBLE);
+        PRIMITIVES.put("float", ProtocolConstants.DataType.FLOAT);
+        PRIMITIVES.put("int", ProtocolConstants.DataType.INT);
+        PRIMITIVES.put("timestamp", ProtocolConstants.DataType.TIMESTAMP);
+        PRIMITIVES.put("uuid", ProtocolConstants.DataType.UUID);
+        PRIMITIVES.put("text", ProtocolConstants.DataType.VARCHAR);
+        PRIMITIVES.put("varchar", ProtocolConstants.DataType.VARCHAR);
+        PRIMITIVES.put("varint", ProtocolConstants.DataType.VARINT);
+        PRIMITIVES.put("timeuuid", ProtocolConstants.DataType.TIMEUUID);
+        PRIMITIVES.put("inet", ProtocolConstants.DataType.INET);
+        PRIMITIVES.put("date", ProtocolConstants.DataType.DATE);
+        PRIMITIVES.put("time", ProtocolConstants.DataType.TIME);
+        PRIMITIVES.put("smallint", ProtocolConstants.DataType.SMALLINT);
+        PRIMITIVES.put("tinyint", ProtocolConstants.DataType.TINYINT);
+    }
+
+    private final String keyspace;
+    private final String name;
+    private final Map<String, RawType> columns;
+    private final List<String> columnNames;
+    private final String partitionKey;
+    private final ConcurrentMap<ByteBuffer, ByteBuffer[]> rows = new ConcurrentHashMap<>();
+    // partition keys in ring order
+    private final ConcurrentSkipListMap<RingPosition, ByteBuffer> ring = new ConcurrentSkipListMap<>();
+
+    /**
+     * Where a partition is on the ring: its token, then its key. A null key stands for the end of its token, after
+     * every partition that has it.
+     */
+    private static final class RingPosition implements Comparable<RingPosition> {
+        final long token;
+        final ByteBuffer key;
+
+        RingPosition(long token, ByteBuffer key) {
+            this.token = token;
+            this.key = key;
+        }
+
+        @Override
+        public int compareTo(RingPosition other) {
+            int c = Long.compare(token, other.token);
+            if (c != 0) {
+                return c;
+            }
+            if (key == null || other.key == null) {
+                return key == null ? (other.key == null ? 0 : 1) : -1;
+            }
+            return key.compareTo(other.key);
+        }
+
+        // also serves as the paging state of a scan stopped at this position
+        ByteBuffer encode() {
+            ByteBuffer state = ByteBuffer.allocate(8 + key.remaining());
+            state.putLong(token).put(key.duplicate()).flip();
+            return state;
+        }
+
+        static RingPosition decode(ByteBuffer state) {
+            ByteBuffer input = state.duplicate();
+            if (input.remaining() < 8) {
+                throw new StandInException(ProtocolConstants.ErrorCode.PROTOCOL_ERROR, "Invalid paging state");
+            }
+            long token = input.getLong();
+            return new RingPosition(token, input.slice());
+        }
+    }
+
+    /**
+     * One page of a scan, with the paging state to get the next one or null if this is the last.
+     */
+    static final class Page {
+        final List<ByteBuffer[]> rows;
+        final ByteBuffer pagingState;
+
+        Page(List<ByteBuffer[]> rows, ByteBuffer pagingState) {
+            this.rows = rows;
+            this.pagingState = pagingState;
+        }
+    }
+
+    StandInTable(String keyspace, String name, Map<String, RawType> columns, String partitionKey) {
+        if (!columns.containsKey(partitionKey)) {
+            throw new IllegalArgumentException("partition key " + partitionKey + " is not a column of " + name);
+        }
+        this.keyspace = keyspace;
+        this.name = name;
+        this.columns = Collections.unmodifiableMap(new LinkedHashMap<>(columns));
+        this.columnNames = new ArrayList<>(columns.keySet());
+        this.partitionKey = partitionKey;
+    }
+
+    String getKeyspace() {
+        return keyspace;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getPartitionKey() {
+        return partitionKey;
+    }
+
+    List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    RawType getType(String column) {
+        RawType type = columns.get(column);
+        if (type == null) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID, "Undefined column name " + column + " in table " + name);
+        }
+        return type;
+    }
+
+    int indexOf(String column) {
+        getType(column);
+        return columnNames.indexOf(column);
+    }
+
+    ColumnSpec spec(String column, int index) {
+        return new ColumnSpec(keyspace, name, column, index, getType(column));
+    }
+
+    /**
+     * Write the given columns of one row, columns not listed keep their previous values.
+     */
+    void upsert(List<String> names, List<ByteBuffer> values) {
+        ByteBuffer key = values.get(names.indexOf(partitionKey));
+        if (key == null) {
+            throw new StandInException(ProtocolConstants.ErrorCode.INVALID, "Invalid null value for partition key " + partitionKey);
+        }
+        rows.compute(key, (k, existing) -> {
+            if (existing == null) {
+                ring.put(new RingPosition(token(k), k), k);
+            }
+            ByteBuffer[] row = existing == null ? new ByteBuffer[columnNames.size()] : existing.clone();
+            for (int i = 0; i < names.size(); i++) {
+                row[indexOf(names.get(i))] = values.get(i);
+            }
+            return row;
+        });
+    }
+
+    ByteBuffer[] get(ByteBuffer key) {
+        return rows.get(key);
+    }
+
+    Collection<ByteBuffer[]> all() {
+        return rows.values();
+    }
+
+    /**
+     * Rows whose partition token is in {@code (start, end]}, in ring order.
+     *
+     * @param pagingState where the previous page stopped, null for the first page
+     * @param pageSize    at most this many rows, no limit if 0 or less
+     */
+    Page scan(long start, long end, ByteBuffer pagingState, int pageSize) {
+        RingPosition from = pagingState != null ? RingPosition.decode(pagingState) : new RingPosition(start, null);
+        RingPosition to = new RingPosition(end, null);
+        List<ByteBuffer[]> page = new ArrayList<>();
+        if (from.compareTo(to) >= 0) {
+            return new Page(page, null);
+        }
+        NavigableMap<RingPosition, ByteBuffer> range = ring.subMap(from, false, to, true);
+        RingPosition last = null;
+        for (Map.Entry<RingPosition, ByteBuffer> entry : range.entrySet()) {
+            if (pageSize > 0 && page.size() == pageSize) {
+                return new Page(page, last.encode());
+            }
+            ByteBuffer[] row = rows.get(entry.getValue());
+            if (row != null) {
+                page.add(row);
+                last = entry.getKey();
+            }
+        }
+        return new Page(page, null);
+    }
+
+    static long token(ByteBuffer partitionKey) {
+        return ((Murmur3Token) TOKENS.hash(partitionKey.duplicate())).getValue();
+    }
+
+    int size() {
+        return rows.size();
+    }
+
+    static RawType parseType(String type) {
+        String t = type.trim().toLowerCase(Locale.ROOT);
+        Integer primitive = PRIMITIVES.get(t);
+        if (primitive != null) {
+            return RawType.PRIMITIVES.get(primitive);
+        }
+        int open = t.indexOf('<');
+        if (open > 0 && t.endsWith(">")) {
+            String kind = t.substring(0, open).trim();
+            String arguments = t.substring(open + 1, t.length() - 1);
+            if (kind.equals("frozen")) {
+                return parseType(arguments);
+            } else if (kind.equals("list")) {
+                return new RawType.RawList(parseType(arguments));
+            } else if (kind.equals("set")) {
+                return new RawType.RawSet(parseType(arguments));
+            } else if (kind.equals("map")) {
+                List<String> kv = CqlStatement.splitTopLevel(arguments);
+                if (kv.size() == 2) {
+                    return new RawType.RawMap(parseType(kv.get(0)), parseType(kv.get(1)));
+                }
+            }
+        }
+        throw new StandInException(ProtocolConstants.ErrorCode.SYNTAX_ERROR, "Unsupported type " + type);
+    }
+}
@@ -0,0 +1,184 @@
+package com.datastax.astra.driver.examples.common;
+
+import jdk.jfr.Category;
+import jdk.jfr.Configuration;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Java Flight Recorder events on Java 11 and later, the multi-release jar uses this version instead of the Java 8 one.
+ * <p>
+ * When no recording is running, beginning a stage only allocates an event that is thrown away. Binds and attempts
+ * are only recorded when they take at least a millisecond, which keeps the recording small at high request rates;
+ * a recording's settings can lower that threshold.
+ */
+public final class FlightRecorder {
+    private static final Logger LOG = LoggerFactory.getLogger(FlightRecorder.class);
+
+    // how much of a long run the recording keeps
+    private static final Duration MAX_AGE = Duration.ofHours(1);
+
+    public interface Span {
+        Span NONE = failure -> {
+        };
+
+        void finish(Throwable failure);
+    }
+
+    @Name("com.datastax.astra.examples.Bind")
+    @Label("Bind")
+    @Category({"Astra Driver Examples", "Requests"})
+    @Description("Binding values to a prepared statement, including waiting for it to be prepared")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static class BindEvent extends Event implements Span {
+        @Label("Statement")
+        String statement;
+
+        @Label("Error")
+        String error;
+
+        @Override
+        public void finish(Throwable failure) {
+            error = errorName(failure);
+            commit();
+        }
+    }
+
+    @Name("com.datastax.astra.examples.Attempt")
+    @Label("Request Attempt")
+    @Category({"Astra Driver Examples", "Requests"})
+    @Description("One attempt of a request sent with execute or executeAsync, retries are attempts of their own")
+    @Threshold("1 ms")
+    @StackTrace(false)
+    static class AttemptEvent extends Event implements Span {
+        @Label("Operation")
+        String operation;
+
+        @Label("Attempt")
+        int attempt;
+
+        @Label("Statement")
+        String statement;
+
+        @Label("Error")
+        String error;
+
+        @Override
+        public void finish(Throwable failure) {
+            error = errorName(failure);
+            commit();
+        }
+    }
+
+    @Name("com.datastax.astra.examples.Connect")
+    @Label("Session Connect")
+    @Category({"Astra Driver Examples", "Sessions"})
+    @Description("Building a session, until it is connected or has failed")
+    static class ConnectEvent extends Event implements Span {
+        @Label("Target")
+        String target;
+
+        @Label("Error")
+        String error;
+
+        @Override
+        public void finish(Throwable failure) {
+            error = errorName(failure);
+            commit();
+        }
+    }
+
+    @Name("com.datastax.astra.examples.Failover")
+    @Label("Region Failover")
+    @Category({"Astra Driver Examples", "Sessions"})
+    @Description("Traffic switched from one region to the other")
+    static class FailoverEvent extends Event {
+        @Label("From")
+        String from;
+
+        @Label("To")
+        String to;
+
+        @Label("Reason")
+        String reason;
+    }
+
+    private FlightRecorder() {
+    }
+
+    public static boolean isSupported() {
+        return true;
+    }
+
+    public static void start(String file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration("default"));
+            recording.setName("astra-driver-examples");
+            recording.setDestination(Paths.get(file));
+            recording.setMaxAge(MAX_AGE);
+            recording.setToDisk(true);
+            recording.setDumpOnExit(true);
+            recording.start();
+            LOG.info("Recording to '{}' when the JVM exits, keeping the last {} min", file, MAX_AGE.toMinutes());
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("cannot record to " + file, e);
+        }
+    }
+
+    public static Span beginBind(String statement) {
+        BindEvent event = new BindEvent();
+        if (!event.isEnabled()) {
+            return Span.NONE;
+        }
+        event.statement = statement;
+        event.begin();
+        return event;
+    }
+
+    public static Span beginAttempt(OperationType type, int attempt, Object description) {
+        AttemptEvent event = new AttemptEvent();
+        if (!event.isEnabled()) {
+            return Span.NONE;
+        }
+        event.operation = type.name();
+        event.attempt = attempt;
+        event.statement = String.valueOf(RetryExecutor.describe(description));
+        event.begin();
+        return event;
+    }
+
+    public static Span beginConnect(String target) {
+        ConnectEvent event = new ConnectEvent();
+        event.target = target;
+        event.begin();
+        return event;
+    }
+
+    public static void failover(String from, String to, String reason) {
+        FailoverEvent event = new FailoverEvent();
+        event.from = from;
+        event.to = to;
+        event.reason = reason;
+        event.commit();
+    }
+
+    private static String errorName(Throwable failure) {
+        return failure == null ? null : AsyncWorkloadRunner.unwrap(failure).getClass().getSimpleName();
+    }
+}
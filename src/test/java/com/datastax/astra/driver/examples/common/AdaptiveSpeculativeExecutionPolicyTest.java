@@ -0,0 +1,107 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.astra.driver.examples.standin.StandInCluster;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.config.DriverExecutionProfile;
+import com.datastax.oss.driver.api.core.cql.AsyncResultSet;
+import com.datastax.oss.driver.api.core.cql.SimpleStatement;
+import com.datastax.oss.driver.internal.core.context.InternalDriverContext;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveSpeculativeExecutionPolicyTest {
+
+    /**
+     * @param initialDelay delay before speculating on a node that does not have enough latency samples yet
+     */
+    private static DriverConfigLoader config(Duration initialDelay) {
+        return DriverConfigLoader.programmaticBuilder()
+                .withString(DefaultDriverOption.LOAD_BALANCING_LOCAL_DATACENTER, "dc1")
+                .withClass(DefaultDriverOption.SPECULATIVE_EXECUTION_POLICY_CLASS, AdaptiveSpeculativeExecutionPolicy.class)
+                .withInt(DefaultDriverOption.SPECULATIVE_EXECUTION_MAX, 2)
+                .withDuration(DefaultDriverOption.SPECULATIVE_EXECUTION_DELAY, initialDelay)
+                .withDuration(DefaultDriverOption.NETTY_TIMER_TICK_DURATION, Duration.ofMillis(10))
+                .withDouble(AdaptiveSpeculativeExecutionPolicy.Option.PERCENTILE, 80)
+                .withDouble(AdaptiveSpeculativeExecutionPolicy.Option.MAX_FRACTION, 0.05)
+                .withDuration(AdaptiveSpeculativeExecutionPolicy.Option.WINDOW, Duration.ofSeconds(10))
+                .withStringList(DefaultDriverOption.REQUEST_TRACKER_CLASSES,
+                        Collections.singletonList(AdaptiveSpeculativeExecutionPolicy.Tracker.class.getName()))
+                .build();
+    }
+
+    private static AdaptiveSpeculativeExecutionPolicy policy(CqlSession session) {
+        return (AdaptiveSpeculativeExecutionPolicy)
+                ((InternalDriverContext) session.getContext()).getSpeculativeExecutionPolicy(DriverExecutionProfile.DEFAULT_NAME);
+    }
+
+    private static SimpleStatement read() {
+        return SimpleStatement.newInstance("SELECT * FROM " + Operations.DEMO_TABLE + " WHERE id = ?", UUID.randomUUID())
+                .setIdempotent(true);
+    }
+
+    @Test
+    public void speculates_on_slow_responses_within_the_cap() throws InterruptedException {
+        // every node answers 10% of requests 100 ms late, more than the cap lets speculative executions cover
+        try (StandInCluster cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1,slow=100@0.1").start();
+             CqlSession session = CqlSession.builder().withConfigLoader(config(Duration.ofMillis(500))).addContactPoints(cluster.getContactPoints()).withKeyspace("test").build()) {
+            session.execute(Operations.buildCreateTableCql(Operations.DEMO_TABLE));
+            SimpleStatement read = read();
+            AdaptiveSpeculativeExecutionPolicy policy = policy(session);
+
+            // until there are enough samples the configured delay applies, then each node's p80
+            for (int i = 0; i < 400; i++) {
+                session.execute(read);
+            }
+            Thread.sleep(1100);
+            assertEquals(3, policy.getDelays().size());
+            for (long delay : policy.getDelays().values()) {
+                assertTrue("delay " + delay, delay < 50);
+            }
+
+            // only about one request in 20 gets a speculative execution scheduled, enough of them to see a few win
+            for (int i = 0; i < 1500; i++) {
+                session.execute(read);
+            }
+            long fired = policy.getFired();
+            assertTrue(fired > 0);
+            assertTrue(policy.getWins() > 0);
+            // the cap allows 5% plus a small burst
+            assertTrue(fired + " fired for " + policy.getRequests(), fired <= 0.05 * policy.getRequests() + 10);
+            assertTrue(policy.getCapped() > 0);
+        }
+    }
+
+    @Test
+    public void caps_speculative_executions_of_concurrent_requests() {
+        // half the requests outlast the initial delay, far more than the 5% the cap lets speculate
+        try (StandInCluster cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1,slow=200@0.5").start();
+             CqlSession session = CqlSession.builder().withConfigLoader(config(Duration.ofMillis(50))).addContactPoints(cluster.getContactPoints()).withKeyspace("test").build()) {
+            session.execute(Operations.buildCreateTableCql(Operations.DEMO_TABLE));
+            SimpleStatement read = read();
+            AdaptiveSpeculativeExecutionPolicy policy = policy(session);
+
+            // all in flight at once, each one sees the tokens left before any of the others has been sent
+            List<CompletableFuture<AsyncResultSet>> reads = new ArrayList<>();
+            for (int i = 0; i < 500; i++) {
+                reads.add(session.executeAsync(read).toCompletableFuture());
+            }
+            CompletableFuture.allOf(reads.toArray(new CompletableFuture[0])).join();
+
+            long fired = policy.getFired();
+            assertTrue(fired > 0);
+            assertTrue(fired + " fired for " + policy.getRequests(), fired <= 0.05 * policy.getRequests() + 10);
+            assertTrue(policy.getCapped() > 0);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.astra.driver.examples.standin.StandInCluster;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BulkLoaderTest {
+
+    private static final int ROWS = 1000;
+    // small enough for many lines to straddle two chunks
+    private static final long CHUNK_SIZE = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StandInCluster cluster;
+    private CqlSession session;
+    private final List<UUID> ids = new ArrayList<>();
+
+    @Before
+    public void connect() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).start();
+        DriverConfigLoader config = DriverConfigLoader.programmaticBuilder()
+                .withString(DefaultDriverOption.LOAD_BALANCING_LOCAL_DATACENTER, cluster.getDatacenter())
+                .build();
+        session = CqlSession.builder().withConfigLoader(config).addContactPoints(cluster.getContactPoints()).withKeyspace("test").build();
+        session.execute(Operations.buildCreateTableCql(Operations.DEMO_TABLE));
+        for (int i = 0; i < ROWS; i++) {
+            ids.add(UUID.randomUUID());
+        }
+    }
+
+    @After
+    public void close() {
+        session.close();
+        cluster.close();
+    }
+
+    @Test
+    public void loads_csv_with_quoted_and_bare_literals() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("id,created_at,string,number");
+        for (int i = 0; i < ROWS; i++) {
+            // text with a comma and a quote, then bare text and timestamps, and windows line endings
+            lines.add(i % 2 == 0
+                    ? ids.get(i) + ",'2024-01-02T03:04:05.000Z','row, ''" + i + "''', " + i
+                    : ids.get(i) + "," + Instant.parse("2024-01-02T03:04:05Z").toEpochMilli() + ",row " + i + "," + i + "\r");
+        }
+        lines.add(UUID.randomUUID() + ",not a timestamp,row,1");
+        Path file = folder.newFile("rows.csv").toPath();
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        assertEquals(1, load(file, BulkLoader.Format.CSV));
+        Map<UUID, Row> rows = rows();
+        assertEquals(ROWS, rows.size());
+        for (int i = 0; i < ROWS; i++) {
+            Row row = rows.get(ids.get(i));
+            assertEquals(i % 2 == 0 ? "row, '" + i + "'" : "row " + i, row.getString("string"));
+            assertEquals(i, row.getInt("number"));
+            assertEquals(Instant.parse("2024-01-02T03:04:05Z"), row.getInstant("created_at"));
+        }
+    }
+
+    @Test
+    public void loads_ndjson() throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            lines.add("{\"id\": \"" + ids.get(i) + "\", \"created_at\": \"2024-01-02T03:04:05Z\", \"string\": \"it's row " + i + "\", \"number\": " + i + "}");
+            if (i % 100 == 0) {
+                lines.add("");
+            }
+        }
+        lines.add("{\"id\": \"" + UUID.randomUUID() + "\", \"number\": [1]}");
+        Path file = folder.newFile("rows.ndjson").toPath();
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        assertEquals(1, load(file, BulkLoader.Format.NDJSON));
+        Map<UUID, Row> rows = rows();
+        assertEquals(ROWS, rows.size());
+        for (int i = 0; i < ROWS; i++) {
+            assertEquals("it's row " + i, rows.get(ids.get(i)).getString("string"));
+        }
+    }
+
+    private long load(Path file, BulkLoader.Format format) throws IOException {
+        try (RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), null)) {
+            BulkLoader loader = new BulkLoader(session, Operations.DEMO_TABLE, format, retry, null, 4, 16, 0, 0, CHUNK_SIZE);
+            long failed = loader.load(file);
+            assertEquals(ROWS, loader.getWritten());
+            return failed;
+        }
+    }
+
+    private Map<UUID, Row> rows() {
+        Map<UUID, Row> rows = new ConcurrentHashMap<>();
+        try (RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), null)) {
+            TokenRangeScanner scanner = new TokenRangeScanner(session, Operations.DEMO_TABLE, "id", retry, 4, 2, 0);
+            assertTrue(scanner.scan(scanner.split(8), row -> rows.put(row.getUuid("id"), row)).isEmpty());
+        }
+        return rows;
+    }
+}
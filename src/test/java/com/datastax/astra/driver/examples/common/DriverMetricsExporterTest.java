@@ -0,0 +1,33 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+public class DriverMetricsExporterTest {
+
+    @Test
+    public void formats_driver_metrics_for_prometheus() {
+        MetricRegistry registry = new MetricRegistry();
+        registry.register("s0.nodes.127_0_0_1:9042.pool.in-flight", (Gauge<Integer>) () -> 3);
+        registry.meter("s0.bytes-sent").mark(42);
+        Timer requests = registry.timer("s0.cql-requests");
+        requests.update(2, TimeUnit.MILLISECONDS);
+
+        String scrape = DriverMetricsExporter.scrape(Collections.singletonMap("s0", registry));
+
+        assertTrue(scrape, scrape.contains("# TYPE cassandra_node_pool_in_flight gauge\n"
+                + "cassandra_node_pool_in_flight{session=\"s0\",node=\"127_0_0_1:9042\"} 3\n"));
+        assertTrue(scrape, scrape.contains("# TYPE cassandra_session_bytes_sent_total counter\n"
+                + "cassandra_session_bytes_sent_total{session=\"s0\"} 42\n"));
+        assertTrue(scrape, scrape.contains("# TYPE cassandra_session_cql_requests_seconds summary\n"));
+        assertTrue(scrape, scrape.contains("cassandra_session_cql_requests_seconds{session=\"s0\",quantile=\"0.99\"} 0.002\n"));
+        assertTrue(scrape, scrape.contains("cassandra_session_cql_requests_seconds_count{session=\"s0\"} 1\n"));
+    }
+}
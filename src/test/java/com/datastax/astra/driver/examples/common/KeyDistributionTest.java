@@ -0,0 +1,84 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.typesafe.config.ConfigFactory;
+import org.junit.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class KeyDistributionTest {
+
+    private static final int DRAWS = 200_000;
+
+    @Test
+    public void keys_stay_within_the_count() {
+        KeyDistribution[] distributions = {
+                new KeyDistribution.Uniform(100),
+                new KeyDistribution.Sequential(100),
+                new KeyDistribution.Zipfian(100, 0.99),
+                new KeyDistribution.HotSet(100, 0.1, 0.9),
+                new KeyDistribution.Zipfian(1, 0.5),
+        };
+        for (KeyDistribution distribution : distributions) {
+            for (int i = 0; i < 10_000; i++) {
+                long key = distribution.next();
+                assertTrue(distribution + " drew " + key, key >= 0 && key < distribution.getCount());
+            }
+        }
+    }
+
+    @Test
+    public void zipfian_draws_the_first_key_in_proportion_to_its_weight() {
+        KeyDistribution.Zipfian zipfian = new KeyDistribution.Zipfian(1000, 0.99);
+        int first = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            if (zipfian.next() == 0) {
+                first++;
+            }
+        }
+        assertEquals(1 / KeyDistribution.Zipfian.zeta(1000, 0.99), (double) first / DRAWS, 0.01);
+    }
+
+    @Test
+    public void hot_set_sends_its_share_to_the_hot_keys() {
+        KeyDistribution hotSet = new KeyDistribution.HotSet(10_000, 0.01, 0.8);
+        int hot = 0;
+        for (int i = 0; i < DRAWS; i++) {
+            if (hotSet.next() < 100) {
+                hot++;
+            }
+        }
+        assertEquals(0.8, (double) hot / DRAWS, 0.01);
+    }
+
+    @Test
+    public void sequential_hands_each_key_out_once_per_lap_across_threads() throws InterruptedException {
+        KeyDistribution sequential = new KeyDistribution.Sequential(1000);
+        ConcurrentHashMap<Long, AtomicInteger> seen = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 500; i++) {
+                    seen.computeIfAbsent(sequential.next(), k -> new AtomicInteger()).incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1000, seen.size());
+        for (AtomicInteger count : seen.values()) {
+            assertEquals(2, count.get());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejects_unknown_distributions() {
+        KeyDistribution.fromConfig(ConfigFactory.parseString("distribution = gaussian, count = 10"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.datastax.astra.driver.examples.common;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+public class LossyAsyncAppenderTest {
+
+    @Test
+    public void debug_events_are_discarded_and_warnings_dropped_when_the_writer_is_behind() throws Exception {
+        LoggerContext context = new LoggerContext();
+        CountDownLatch taken = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> written = new CopyOnWriteArrayList<>();
+        AppenderBase<ILoggingEvent> slow = new AppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                taken.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.add(event.getFormattedMessage());
+            }
+        };
+        slow.setContext(context);
+        slow.start();
+
+        LossyAsyncAppender appender = new LossyAsyncAppender();
+        appender.setContext(context);
+        appender.setName("test");
+        appender.setQueueSize(10);
+        appender.setDiscardingThreshold(5);
+        appender.addAppender(slow);
+        appender.start();
+
+        long discarded = LossyAsyncAppender.getDiscarded();
+        long dropped = LossyAsyncAppender.getDropped();
+        // the writer takes the first event and blocks on it
+        appender.doAppend(event(context, Level.WARN, "first"));
+        taken.await();
+        for (int i = 0; i < 20; i++) {
+            appender.doAppend(event(context, Level.DEBUG, "debug " + i));
+        }
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event(context, Level.WARN, "warn " + i));
+        }
+        release.countDown();
+        appender.stop();
+
+        // debug events are accepted until fewer than 5 slots are free, then 4 warnings fill the queue
+        assertEquals(14, LossyAsyncAppender.getDiscarded() - discarded);
+        assertEquals(6, LossyAsyncAppender.getDropped() - dropped);
+        assertEquals(11, written.size());
+        assertEquals("first", written.get(0));
+    }
+
+    private static LoggingEvent event(LoggerContext context, Level level, String message) {
+        return new LoggingEvent(LossyAsyncAppenderTest.class.getName(), context.getLogger("test"), level, message, null, null);
+    }
+}
@@ -0,0 +1,61 @@
+package com.datastax.astra.driver.examples.common;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PoolTunerTest {
+
+    @Test
+    public void grows_connections_and_gives_them_back() {
+        PoolTuner tuner = new PoolTuner("astra.conf", 1, 3);
+
+        assertTrue(tuner.adjust(0.9));
+        assertEquals(2, tuner.getPoolSize());
+        // each change settles before the next one
+        for (int i = 0; i < 5; i++) {
+            assertFalse(tuner.adjust(0.9));
+        }
+        assertTrue(tuner.adjust(0.9));
+        assertEquals(3, tuner.getPoolSize());
+
+        for (int i = 0; i < 5; i++) {
+            tuner.adjust(0.5);
+        }
+        assertFalse(tuner.adjust(0.5));
+        assertTrue(tuner.adjust(0.1));
+        assertEquals(2, tuner.getPoolSize());
+        for (int i = 0; i < 5; i++) {
+            tuner.adjust(0.1);
+        }
+        assertTrue(tuner.adjust(0.1));
+        assertEquals(1, tuner.getPoolSize());
+        for (int i = 0; i < 5; i++) {
+            tuner.adjust(0.1);
+        }
+        assertFalse(tuner.adjust(0.1));
+    }
+
+    @Test
+    public void reports_saturation_at_the_maximum_size_without_changing_anything() {
+        PoolTuner tuner = new PoolTuner("astra.conf", 1, 2);
+        assertTrue(tuner.adjust(0.9));
+        for (int i = 0; i < 5; i++) {
+            tuner.adjust(0.9);
+        }
+        assertFalse(tuner.isSaturated());
+
+        for (int i = 0; i < 20; i++) {
+            assertFalse(tuner.adjust(0.9));
+            assertTrue(tuner.isSaturated());
+        }
+        assertEquals(2, tuner.getPoolSize());
+
+        assertFalse(tuner.adjust(0.5));
+        assertFalse(tuner.isSaturated());
+        assertTrue(tuner.adjust(0.1));
+        assertEquals(1, tuner.getPoolSize());
+    }
+}
@@ -0,0 +1,41 @@
+package com.datastax.astra.driver.examples.common;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RecentIdsTest {
+
+    @Test
+    public void keeps_only_the_most_recent_ids() {
+        RecentIds ids = new RecentIds(3);
+        assertTrue(ids.snapshot().isEmpty());
+
+        UUID first = PayloadGenerator.randomId();
+        ids.add(first);
+        assertEquals(1, ids.snapshot().size());
+
+        for (int i = 0; i < 3; i++) {
+            ids.add(PayloadGenerator.randomId());
+        }
+        List<UUID> snapshot = ids.snapshot();
+        assertEquals(3, snapshot.size());
+        assertEquals(3, new HashSet<>(snapshot).size());
+        assertFalse(snapshot.contains(first));
+    }
+
+    @Test
+    public void payloads_cycle_through_pre_generated_values() {
+        PayloadGenerator payloads = new PayloadGenerator(4, 10);
+        assertEquals(10, payloads.string(0).length());
+        assertEquals(payloads.string(1), payloads.string(5));
+        assertEquals(payloads.number(2), payloads.number(6));
+        assertEquals(4, PayloadGenerator.randomId().version());
+    }
+}
@@ -0,0 +1,58 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.oss.driver.api.core.DriverTimeoutException;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void retries_are_limited_to_ratio_of_requests() {
+        RetryBudget budget = new RetryBudget(0.1, 2);
+        // initial burst
+        assertTrue(budget.tryRetry());
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+
+        // ten requests earn one retry
+        for (int i = 0; i < 10; i++) {
+            budget.onRequest();
+        }
+        assertTrue(budget.tryRetry());
+        assertFalse(budget.tryRetry());
+    }
+
+    @Test
+    public void budget_is_capped_at_burst() {
+        RetryBudget budget = new RetryBudget(1.0, 3);
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+        assertEquals(3.0, budget.getTokens(), 0.0);
+    }
+
+    @Test
+    public void unlimited_budget_always_retries() {
+        RetryBudget budget = RetryBudget.unlimited();
+        for (int i = 0; i < 100; i++) {
+            assertTrue(budget.tryRetry());
+        }
+    }
+
+    @Test
+    public void backoff_is_bounded_by_policy() {
+        RetryPolicy policy = RetryPolicy.classify(new DriverTimeoutException("timeout"));
+        assertEquals(RetryPolicy.TIMEOUT, policy);
+        for (int attempt = 1; attempt < 64; attempt++) {
+            long delay = policy.backoffNanos(attempt);
+            assertTrue(delay >= 0);
+            assertTrue(delay <= TimeUnit.SECONDS.toNanos(1));
+        }
+        assertEquals(RetryPolicy.NO_RETRY, RetryPolicy.classify(new IllegalStateException()));
+    }
+}
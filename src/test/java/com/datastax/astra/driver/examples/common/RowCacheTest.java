@@ -0,0 +1,50 @@
+package com.datastax.astra.driver.examples.common;
+
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RowCacheTest {
+
+    @Test
+    public void serves_cached_rows_and_returns_the_misses_in_order() {
+        RowCache cache = new RowCache(1024 * 1024, 60_000);
+        UUID a = UUID.randomUUID();
+        UUID b = UUID.randomUUID();
+        UUID c = UUID.randomUUID();
+        UUID d = UUID.randomUUID();
+        cache.put(b, Instant.EPOCH, "b", 2);
+        cache.put(d, Instant.EPOCH, "d", 4);
+
+        List<String> hits = new ArrayList<>();
+        List<UUID> misses = cache.serve(Arrays.asList(a, b, c, d), row -> hits.add(row.getString()));
+
+        assertEquals(Arrays.asList("b", "d"), hits);
+        assertEquals(Arrays.asList(a, c), misses);
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(2, cache.stats().missCount());
+        assertTrue(cache.getEstimatedBytes() > 0);
+    }
+
+    @Test
+    public void reads_without_hits_keep_their_ids() {
+        RowCache cache = new RowCache(1024 * 1024, 60_000);
+        List<UUID> ids = Arrays.asList(UUID.randomUUID(), UUID.randomUUID());
+        assertSame(ids, cache.serve(ids, row -> {
+            throw new AssertionError("nothing is cached");
+        }));
+
+        cache.put(ids.get(0), Instant.EPOCH, "a", 1);
+        cache.put(ids.get(1), Instant.EPOCH, "b", 2);
+        assertTrue(cache.serve(ids, row -> {
+        }).isEmpty());
+    }
+}
@@ -0,0 +1,97 @@
+package com.datastax.astra.driver.examples.common;
+
+import com.datastax.astra.driver.examples.standin.StandInCluster;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import com.datastax.oss.driver.api.core.cql.PreparedStatement;
+import com.datastax.oss.driver.api.core.cql.Row;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TokenRangeScannerTest {
+
+    private static final int ROWS = 500;
+
+    private StandInCluster cluster;
+    private CqlSession session;
+    // how many times each row was handed to the sink
+    private final Map<UUID, AtomicInteger> seen = new ConcurrentHashMap<>();
+    private final Consumer<Row> sink = row -> seen.computeIfAbsent(row.getUuid("id"), id -> new AtomicInteger()).incrementAndGet();
+
+    @Before
+    public void fill() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).start();
+        DriverConfigLoader config = DriverConfigLoader.programmaticBuilder()
+                .withString(DefaultDriverOption.LOAD_BALANCING_LOCAL_DATACENTER, cluster.getDatacenter())
+                .withInt(DefaultDriverOption.REQUEST_PAGE_SIZE, 20)
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, Duration.ofMillis(200))
+                .build();
+        session = CqlSession.builder().withConfigLoader(config).addContactPoints(cluster.getContactPoints()).withKeyspace("test").build();
+        session.execute(Operations.buildCreateTableCql(Operations.DEMO_TABLE));
+        PreparedStatement insert = session.prepare("INSERT INTO " + Operations.DEMO_TABLE + " (id, created_at, string, number) VALUES (?, ?, ?, ?)");
+        for (int i = 0; i < ROWS; i++) {
+            session.execute(insert.bind(UUID.randomUUID(), Instant.now(), "row", i));
+        }
+    }
+
+    @After
+    public void close() {
+        session.close();
+        cluster.close();
+    }
+
+    @Test
+    public void scans_every_row_once() {
+        try (RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), null)) {
+            TokenRangeScanner scanner = new TokenRangeScanner(session, Operations.DEMO_TABLE, "id", retry, 4, 2, 0);
+            List<TokenRangeScanner.Split> splits = scanner.split(10);
+            assertTrue(splits.size() >= 10);
+            assertTrue(scanner.scan(splits, sink).isEmpty());
+            assertEquals(ROWS, scanner.getRows());
+        }
+        assertEquals(ROWS, seen.size());
+        assertTrue(seen.values().stream().allMatch(count -> count.get() == 1));
+    }
+
+    @Test
+    public void failed_ranges_resume_where_they_stopped() {
+        List<String> unfinished;
+        try (RetryExecutor retry = new RetryExecutor(new RetryBudget(0, 0), null)) {
+            TokenRangeScanner scanner = new TokenRangeScanner(session, Operations.DEMO_TABLE, "id", retry, 4, 2, 0);
+            // an empty scan prepares the statements before node1 starts losing requests
+            scanner.scan(Collections.emptyList(), sink);
+            // without retries, pages lost by node1 fail their range; node1 only serves about ten pages of the scan, so
+            // half of them are lost for some to be lost whichever of node1's random sequences its connection gets
+            cluster.withBehavior("node1:timeout=0.5");
+            unfinished = scanner.scan(scanner.split(10), sink).stream().map(scanner::format).collect(Collectors.toList());
+        }
+        assertFalse(unfinished.isEmpty());
+        assertTrue(seen.size() < ROWS);
+
+        cluster.withBehavior("timeout=0");
+        try (RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), null)) {
+            TokenRangeScanner scanner = new TokenRangeScanner(session, Operations.DEMO_TABLE, "id", retry, 4, 2, 0);
+            List<TokenRangeScanner.Split> resumed = unfinished.stream().map(scanner::parse).collect(Collectors.toList());
+            assertTrue(scanner.scan(resumed, sink).isEmpty());
+        }
+        assertEquals(ROWS, seen.size());
+        assertTrue(seen.values().stream().allMatch(count -> count.get() == 1));
+    }
+}
@@ -0,0 +1,191 @@
+package com.datastax.astra.driver.examples.standin;
+
+import com.datastax.astra.driver.examples.common.AsyncWorkloadRunner;
+import com.datastax.astra.driver.examples.common.BlockingWorkloadRunner;
+import com.datastax.astra.driver.examples.common.MultiPartitionReader;
+import com.datastax.astra.driver.examples.common.Operations;
+import com.datastax.astra.driver.examples.common.ReactiveWorkloadRunner;
+import com.datastax.astra.driver.examples.common.RetryBudget;
+import com.datastax.astra.driver.examples.common.RetryExecutor;
+import com.datastax.astra.driver.examples.common.RowCache;
+import com.datastax.astra.driver.examples.common.WorkloadMetrics;
+import com.datastax.astra.driver.examples.common.WriteBatcher;
+import com.datastax.oss.driver.api.core.CqlSession;
+import com.datastax.oss.driver.api.core.config.DefaultDriverOption;
+import com.datastax.oss.driver.api.core.config.DriverConfigLoader;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StandInClusterTest {
+
+    private static final int ITERATIONS = 50;
+
+    private StandInCluster cluster;
+
+    @After
+    public void stop() {
+        if (cluster != null) {
+            cluster.close();
+        }
+    }
+
+    private CqlSession connect(Duration requestTimeout) {
+        DriverConfigLoader config = DriverConfigLoader.programmaticBuilder()
+                .withString(DefaultDriverOption.LOAD_BALANCING_LOCAL_DATACENTER, cluster.getDatacenter())
+                .withDuration(DefaultDriverOption.REQUEST_TIMEOUT, requestTimeout)
+                .build();
+        return CqlSession.builder()
+                .withConfigLoader(config)
+                .addContactPoints(cluster.getContactPoints())
+                .withKeyspace("test")
+                .addSchemaChangeListener(Operations.DEMO_STATEMENTS)
+                .build();
+    }
+
+    private static void runDemo(CqlSession session) {
+        try (WorkloadMetrics metrics = new WorkloadMetrics(0, null, null);
+             RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), metrics)) {
+            Operations.runDemo(session, ITERATIONS, new AsyncWorkloadRunner(4, 0, metrics), retry);
+        }
+    }
+
+    private static void runBatchedDemo(CqlSession session, WriteBatcher.Mode mode) {
+        try (WorkloadMetrics metrics = new WorkloadMetrics(0, null, null);
+             RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), metrics);
+             WriteBatcher batcher = new WriteBatcher(session, retry, metrics, 5, 20, mode)) {
+            Operations.runDemo(session, ITERATIONS, new AsyncWorkloadRunner(16, 0, metrics), retry, batcher);
+        }
+    }
+
+    private long totalRequests() {
+        return cluster.getNodes().stream().mapToLong(StandInNode::getRequests).sum();
+    }
+
+    @Test
+    public void demo_runs_against_slow_nodes() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1-5,jitter=2").start();
+        try (CqlSession session = connect(Duration.ofSeconds(2))) {
+            runDemo(session);
+        }
+        assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        for (StandInNode node : cluster.getNodes()) {
+            assertTrue(node + " served no requests", node.getRequests() > 0);
+        }
+    }
+
+    @Test
+    public void lost_responses_and_dropped_connections_are_retried() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("node1:timeout=0.2;node2:drop=0.05").start();
+        try (CqlSession session = connect(Duration.ofMillis(200))) {
+            runDemo(session);
+        }
+        // every write is eventually acknowledged, retried writes of the same id land on the same row
+        assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        assertTrue(cluster.getNodes().get(1).getTimedOut() > 0);
+        assertTrue(cluster.getNodes().get(2).getDropped() > 0);
+        assertEquals(0, cluster.getNodes().get(0).getTimedOut() + cluster.getNodes().get(0).getDropped());
+    }
+
+    @Test
+    public void inserts_are_batched() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=2").start();
+        try (CqlSession session = connect(Duration.ofSeconds(2))) {
+            // not counting the requests made while connecting
+            long connectRequests = totalRequests();
+            runBatchedDemo(session, WriteBatcher.Mode.UNLOGGED);
+            assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+            // one read per iteration, but fewer writes
+            assertTrue(totalRequests() - connectRequests < 2 * ITERATIONS);
+
+            session.execute("DROP TABLE " + Operations.DEMO_TABLE);
+            runBatchedDemo(session, WriteBatcher.Mode.PIPELINED);
+            assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        }
+    }
+
+    @Test
+    public void reads_fan_out_to_single_partitions() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1-5").start();
+        try (CqlSession session = connect(Duration.ofSeconds(2));
+             WorkloadMetrics metrics = new WorkloadMetrics(0, null, null);
+             RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), metrics)) {
+            Operations.runDemo(session, ITERATIONS, new AsyncWorkloadRunner(4, 0, metrics), retry, null,
+                    new MultiPartitionReader(session, retry, metrics, MultiPartitionReader.Mode.FANOUT), 5, null);
+        }
+        assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        // one write and, after the first few iterations, five single-partition reads per iteration
+        assertTrue(totalRequests() > 5 * ITERATIONS);
+    }
+
+    @Test
+    public void reactive_demo_retries_lost_responses() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1-5;node1:timeout=0.1").start();
+        try (CqlSession session = connect(Duration.ofMillis(200));
+             WorkloadMetrics metrics = new WorkloadMetrics(0, null, null);
+             RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), metrics)) {
+            Operations.runDemo(session, ITERATIONS, new ReactiveWorkloadRunner(4, 0, metrics), retry, null,
+                    new MultiPartitionReader(session, retry, metrics, MultiPartitionReader.Mode.FANOUT), 5, null);
+        }
+        assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        assertTrue(cluster.getNodes().get(1).getTimedOut() > 0);
+        assertTrue(totalRequests() > 5 * ITERATIONS);
+    }
+
+    @Test
+    public void blocking_demo_retries_lost_responses() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1-5;node1:timeout=0.1").start();
+        try (CqlSession session = connect(Duration.ofMillis(200));
+             WorkloadMetrics metrics = new WorkloadMetrics(0, null, null);
+             RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), metrics)) {
+            Operations.runDemo(session, ITERATIONS, new BlockingWorkloadRunner(4, false), retry, null,
+                    new MultiPartitionReader(session, retry, metrics, MultiPartitionReader.Mode.IN), 5, null);
+        }
+        assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        assertTrue(cluster.getNodes().get(1).getTimedOut() > 0);
+    }
+
+    @Test
+    public void row_cache_serves_read_backs() {
+        cluster = new StandInCluster("dc1", 0, 0, 0).withBehavior("latency=1-5").start();
+        RowCache cache = new RowCache(1024 * 1024, 60_000);
+        try (CqlSession session = connect(Duration.ofSeconds(2));
+             WorkloadMetrics metrics = new WorkloadMetrics(0, null, null);
+             RetryExecutor retry = new RetryExecutor(RetryBudget.unlimited(), metrics)) {
+            Operations.runDemo(session, ITERATIONS, new AsyncWorkloadRunner(4, 0, metrics), retry, null,
+                    new MultiPartitionReader(session, retry, metrics, MultiPartitionReader.Mode.FANOUT), 5, cache);
+        }
+        assertEquals(ITERATIONS, cluster.getRowCount(Operations.DEMO_TABLE));
+        // every row read back was written by this client, only the writes reach the cluster
+        assertEquals(0, cache.stats().missCount());
+        assertTrue(totalRequests() < 2 * ITERATIONS);
+    }
+
+    @Test
+    public void behavior_spec_is_parsed() {
+        NodeBehavior behavior = NodeBehavior.parse("latency=10,jitter=0,timeout=1");
+        Random random = behavior.newRandom(0);
+        assertEquals(10_000_000L, behavior.sampleDelayNanos(random));
+        assertEquals(NodeBehavior.Outcome.TIMEOUT, behavior.sampleOutcome(random));
+        assertEquals(NodeBehavior.Outcome.ANSWER, NodeBehavior.parse("latency=5-50").sampleOutcome(random));
+
+        // the same seed gives the same delays on the same connection, and other delays on another one
+        NodeBehavior a = NodeBehavior.parse("latency=exp20,seed=7");
+        NodeBehavior b = NodeBehavior.parse("latency=exp20,seed=7");
+        Random a0 = a.newRandom(0);
+        Random b0 = b.newRandom(0);
+        Random b1 = b.newRandom(1);
+        boolean differs = false;
+        for (int i = 0; i < 10; i++) {
+            long delay = a.sampleDelayNanos(a0);
+            assertEquals(delay, b.sampleDelayNanos(b0));
+            differs |= delay != b.sampleDelayNanos(b1);
+        }
+        assertTrue(differs);
+    }
+}